@@ -58,7 +58,7 @@ class EnlistControllerIT {
 
         // When
         //      - the EnlistController receives a POST request to enlist the student in the section
-        mockMvc.perform(post("/enlist").sessionAttr("student", studentRepository.findById(DEFAULT_STUDENT_NUMBER).get())
+        mockMvc.perform(post("/enlist").sessionAttr(EnlistController.STUDENT_NUMBER, DEFAULT_STUDENT_NUMBER)
                 .param("sectionId", DEFAULT_SECTION_ID).param("userAction", ENLIST.name()));
 
         // Then
@@ -76,7 +76,7 @@ class EnlistControllerIT {
                 DEFAULT_STUDENT_NUMBER, "firstname", "lastname");
         insertNewDefaultSectionWithCapacity(1);
 
-        mockMvc.perform(delete("/enlist").sessionAttr("student", studentRepository.findById(DEFAULT_STUDENT_NUMBER).get())
+        mockMvc.perform(delete("/enlist").sessionAttr(EnlistController.STUDENT_NUMBER, DEFAULT_STUDENT_NUMBER)
                 .param("sectionId", DEFAULT_SECTION_ID).param("userAction", CANCEL.name()));
 
         int count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student_sections WHERE student_student_number = ? AND sections_section_id = ?",
@@ -165,7 +165,7 @@ class EnlistControllerIT {
         public void run() {
             try {
                 latch.await(); // The thread keeps waiting till it is informed
-                mockMvc.perform(post("/enlist").sessionAttr("student", student)
+                mockMvc.perform(post("/enlist").sessionAttr(EnlistController.STUDENT_NUMBER, student.getStudentNumber())
                         .param("sectionId", DEFAULT_SECTION_ID).param("userAction", ENLIST.name()));
             } catch (Exception e) {
                 throw new RuntimeException(e);
@@ -0,0 +1,104 @@
+package com.adriannebulao.enlistment.controllers;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.test.autoconfigure.web.servlet.*;
+import org.springframework.boot.test.context.*;
+import org.springframework.http.*;
+import org.springframework.mock.web.*;
+import org.springframework.test.annotation.*;
+import org.springframework.test.context.*;
+import org.springframework.test.web.servlet.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Polls the JSON API the way a mobile client would, w/ the ETag of the last listing it got.
+ */
+@Testcontainers
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureMockMvc
+@SpringBootTest
+class EnlistmentApiIT {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14")
+            .withDatabaseName("enlistment").withUsername("enlistment").withPassword("enlistment");
+
+    @DynamicPropertySource
+    private static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    private final static String SECTIONS = "/api/sections";
+    private final static String ENLISTMENT = "/api/students/1/sections/ABC"; // student & section from import.sql
+    private final static String TIMETABLE = "/api/students/1/timetable";
+
+    @Autowired
+    private MockMvc mockMvc;
+    private final MockHttpSession session = new MockHttpSession();
+
+    @BeforeEach
+    void logIn() {
+        session.setAttribute(EnlistController.STUDENT_NUMBER, 1); // as the enlist page does
+    }
+
+    @Test
+    void poll_sections_not_modified_until_a_seat_is_taken() throws Exception {
+        // Given a client got the sections
+        String etag = mockMvc.perform(get(SECTIONS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sections[?(@.id == 'ABC')].taken").value(0))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        // When it polls again, then nothing is sent back
+        mockMvc.perform(get(SECTIONS).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // When a student enlists, then the next poll gets the new listing
+        mockMvc.perform(post(ENLISTMENT).session(session)).andExpect(status().isNoContent());
+        mockMvc.perform(get(SECTIONS).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sections[?(@.id == 'ABC')].taken").value(1));
+    }
+
+    @Test
+    void enlist_cancel_and_timetable() throws Exception {
+        mockMvc.perform(post(ENLISTMENT).session(session)).andExpect(status().isNoContent());
+        String etag = mockMvc.perform(get(TIMETABLE).session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("ABC"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get(TIMETABLE).session(session).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+
+        // enlisting again is refused
+        mockMvc.perform(post(ENLISTMENT).session(session))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").exists());
+
+        mockMvc.perform(delete(ENLISTMENT).session(session)).andExpect(status().isNoContent());
+        mockMvc.perform(get(TIMETABLE).session(session).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void enlist_as_another_student_is_forbidden() throws Exception {
+        // student 1 is logged in, so can't enlist student 2
+        mockMvc.perform(post("/api/students/2/sections/ABC").session(session))
+                .andExpect(status().isForbidden());
+        // & nobody is, w/o a session
+        mockMvc.perform(post(ENLISTMENT)).andExpect(status().isForbidden());
+        mockMvc.perform(get(TIMETABLE)).andExpect(status().isForbidden());
+        mockMvc.perform(get(SECTIONS))
+                .andExpect(jsonPath("$.sections[?(@.id == 'ABC')].taken").value(0));
+    }
+}
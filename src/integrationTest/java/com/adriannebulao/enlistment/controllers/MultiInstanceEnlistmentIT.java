@@ -0,0 +1,154 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.domain.*;
+import org.junit.jupiter.api.*;
+import org.slf4j.*;
+import org.springframework.context.*;
+import org.springframework.jdbc.core.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.*;
+
+import java.net.*;
+import java.net.http.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static com.adriannebulao.enlistment.controllers.EnlistmentHarness.*;
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs two instances of the app against one database, the way it runs behind a load balancer: one in the test's
+ * JVM, the other in a JVM of its own, so they share no {@link EnlistmentLocks} and only the database can keep
+ * them from both taking the last seats. Conflicts on the section's version are not retried, so that they show
+ * up as busy responses rather than being worked around.
+ */
+@Testcontainers
+class MultiInstanceEnlistmentIT {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14")
+            .withDatabaseName("enlistment").withUsername("enlistment").withPassword("enlistment");
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiInstanceEnlistmentIT.class);
+
+    private final static int NUMBER_OF_STUDENTS = 100;
+    private final static int CAPACITY = 30;
+
+    private ConfigurableApplicationContext firstInstance;
+    private Process secondInstance;
+    private URI secondInstanceUri;
+
+    @AfterEach
+    void stopInstances() throws InterruptedException {
+        if (secondInstance != null) {
+            stopProcess(secondInstance);
+        }
+        if (firstInstance != null) {
+            firstInstance.close();
+        }
+    }
+
+    @Test
+    void enlist_concurrently_through_two_instances_w_advisory_locks() throws Exception {
+        // Given two instances coordinating seat changes through PostgreSQL advisory locks
+        startInstances("advisory-lock");
+
+        // When more students than seats enlist at the same time, half through each instance
+        Map<Integer, AtomicInteger> statuses = enlistConcurrently();
+
+        // Then the section is filled exactly up to capacity, every other student told it is full, none told it is busy
+        JdbcTemplate jdbcTemplate = firstInstance.getBean(JdbcTemplate.class);
+        assertAll(
+                () -> assertEquals(CAPACITY, numberOfStudents(jdbcTemplate)),
+                () -> assertEquals(CAPACITY, enlisted(jdbcTemplate)),
+                () -> assertEquals(CAPACITY, count(statuses, 204), "responses by status: " + statuses),
+                () -> assertEquals(NUMBER_OF_STUDENTS - CAPACITY, count(statuses, 409), "responses by status: " + statuses)
+        );
+    }
+
+    @Test
+    void enlist_concurrently_through_two_instances_w_in_memory_allocation() throws Exception {
+        // Given two instances claiming seats in memory, which coordinates within an instance only
+        startInstances("in-memory");
+
+        // When more students than seats enlist at the same time, half through each instance
+        Map<Integer, AtomicInteger> statuses = enlistConcurrently();
+
+        // Then the instances trip over each other: the section overflows, or enlistments conflict & are refused as busy
+        JdbcTemplate jdbcTemplate = firstInstance.getBean(JdbcTemplate.class);
+        int enlisted = enlisted(jdbcTemplate);
+        assertTrue(enlisted > CAPACITY || count(statuses, 503) > 0,
+                "enlisted: " + enlisted + ", responses by status: " + statuses);
+    }
+
+    private void startInstances(String seatAllocation) throws Exception {
+        String[] properties = {
+                "enlistment.seat-allocation=" + seatAllocation,
+                "enlistment.retry.max-attempts=1",
+                "enlistment.login.max-student-number=" + (FIRST_STUDENT_NUMBER + NUMBER_OF_STUDENTS - 1)};
+        firstInstance = startInstance(POSTGRES, properties); // creates the schema both use
+        JdbcTemplate jdbcTemplate = firstInstance.getBean(JdbcTemplate.class);
+        insertStudents(jdbcTemplate, NUMBER_OF_STUDENTS);
+        insertSection(jdbcTemplate, DEFAULT_SECTION_ID, "roomName", CAPACITY, DEFAULT_SUBJECT_ID, Days.MTH);
+        int port = freePort();
+        List<String> secondProperties = new ArrayList<>(List.of(properties));
+        secondProperties.add("spring.jpa.hibernate.ddl-auto=none");
+        secondInstance = startProcess(POSTGRES, port, secondProperties.toArray(String[]::new));
+        secondInstanceUri = URI.create("http://localhost:" + port + "/");
+    }
+
+    /** Has every student enlist through the JSON API, half through each instance, all at once **/
+    private Map<Integer, AtomicInteger> enlistConcurrently() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Map<Integer, AtomicInteger> statuses = new ConcurrentSkipListMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Void>> enlistments = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_STUDENTS; i++) {
+            int studentNumber = FIRST_STUDENT_NUMBER + i;
+            URI app = i % 2 == 0 ? baseUri(firstInstance) : secondInstanceUri;
+            URI section = app.resolve("api/students/" + studentNumber + "/sections/" + DEFAULT_SECTION_ID);
+            enlistments.add(() -> {
+                String session = logIn(client, app, studentNumber).join();
+                start.await();
+                HttpRequest enlist = HttpRequest.newBuilder(section).header("Cookie", session)
+                        .POST(HttpRequest.BodyPublishers.noBody()).build();
+                int status = client.send(enlist, HttpResponse.BodyHandlers.discarding()).statusCode();
+                statuses.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_STUDENTS);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            enlistments.forEach(enlistment -> results.add(executor.submit(enlistment)));
+            Instant startedAt = Instant.now();
+            start.countDown();
+            for (Future<Void> result : results) {
+                result.get();
+            }
+            Duration elapsed = Duration.between(startedAt, Instant.now());
+            LOGGER.info("enlistments through 2 instances: {}, responses by status: {}",
+                    throughput(NUMBER_OF_STUDENTS, elapsed), statuses);
+        } finally {
+            executor.shutdown();
+        }
+        return statuses;
+    }
+
+    private static int count(Map<Integer, AtomicInteger> statuses, int status) {
+        return statuses.getOrDefault(status, new AtomicInteger()).get();
+    }
+
+    private static int numberOfStudents(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject(
+                "SELECT number_of_students FROM section WHERE section_id = ?", Integer.class, DEFAULT_SECTION_ID);
+    }
+
+    private static int enlisted(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM student_sections WHERE sections_section_id = ?", Integer.class, DEFAULT_SECTION_ID);
+    }
+}
@@ -0,0 +1,77 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.domain.*;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.test.autoconfigure.web.servlet.*;
+import org.springframework.boot.test.context.*;
+import org.springframework.test.annotation.*;
+import org.springframework.test.context.*;
+import org.springframework.test.web.servlet.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Serves the subjects & rooms of the sections page from the second-level cache once they were loaded,
+ * until an admin evicts them.
+ */
+@Testcontainers
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureMockMvc
+@SpringBootTest
+class ReferenceDataCacheIT {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14")
+            .withDatabaseName("enlistment").withUsername("enlistment").withPassword("enlistment");
+
+    @DynamicPropertySource
+    private static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    private final static int ADMIN_ID = 1; // from import.sql
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AdminRepository adminRepository;
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Test
+    void subjects_and_rooms_cached_until_evicted() throws Exception {
+        // Given the sections page was shown once, putting the subjects & rooms in the cache
+        Admin admin = adminRepository.findById(ADMIN_ID).orElseThrow();
+        mockMvc.perform(get("/sections").sessionAttr("admin", admin)).andExpect(status().isOk());
+        ReferenceDataCache.RegionStatistics loaded = queryResults();
+
+        // When it is shown again, then both lists come from the cache
+        mockMvc.perform(get("/sections").sessionAttr("admin", admin)).andExpect(status().isOk());
+        ReferenceDataCache.RegionStatistics cached = queryResults();
+        assertEquals(loaded.hits() + 2, cached.hits());
+        mockMvc.perform(get("/sections/referenceData/statistics").sessionAttr("admin", admin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + ReferenceDataCache.QUERY_RESULTS + "'].hits").value(cached.hits()));
+
+        // When the admin evicts the reference data, then the page loads both lists again
+        mockMvc.perform(post("/sections/referenceData/evict").sessionAttr("admin", admin))
+                .andExpect(redirectedUrl("/sections"));
+        mockMvc.perform(get("/sections").sessionAttr("admin", admin)).andExpect(status().isOk());
+        ReferenceDataCache.RegionStatistics reloaded = queryResults();
+        assertAll(
+                () -> assertEquals(cached.hits(), reloaded.hits()),
+                () -> assertEquals(cached.puts() + 2, reloaded.puts())
+        );
+    }
+
+    private ReferenceDataCache.RegionStatistics queryResults() {
+        return referenceDataCache.getStatistics().get(ReferenceDataCache.QUERY_RESULTS);
+    }
+}
@@ -0,0 +1,105 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.domain.*;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.test.context.*;
+import org.springframework.data.domain.*;
+import org.springframework.jdbc.core.*;
+import org.springframework.test.annotation.*;
+import org.springframework.test.context.*;
+import org.springframework.transaction.annotation.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.*;
+
+import java.time.*;
+import java.util.*;
+
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the {@link SectionFilter} criteria as database queries, the way listings run once the catalog
+ * of sections is too big to keep.
+ */
+@Testcontainers
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@SpringBootTest
+@Transactional
+class SectionFilterIT {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14")
+            .withDatabaseName("enlistment").withUsername("enlistment").withPassword("enlistment");
+
+    @DynamicPropertySource
+    private static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private SectionRepository sectionRepository;
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private final Pageable firstPage = PageRequest.of(0, 10, Sort.by("sectionId"));
+
+    @BeforeEach
+    void insertSections() {
+        jdbcTemplate.update("INSERT INTO room (name, capacity) VALUES ('small', 1), ('big', 10)");
+        jdbcTemplate.update("INSERT INTO subject (subject_id) VALUES (?)", DEFAULT_SUBJECT_ID);
+        insertSection("A1", Days.MTH, LocalTime.of(8, 30), LocalTime.of(10, 0), "small", 1);
+        insertSection("A2", Days.MTH, LocalTime.of(13, 0), LocalTime.of(14, 30), "big", 1);
+        insertSection("A3", Days.TF, LocalTime.of(8, 30), LocalTime.of(10, 0), "big", 0);
+        jdbcTemplate.update("INSERT INTO student (student_number, firstname, lastname) VALUES (?, 'first', 'last')",
+                DEFAULT_STUDENT_NUMBER);
+        jdbcTemplate.update("INSERT INTO student_sections (student_student_number, sections_section_id) VALUES (?, 'A2')",
+                DEFAULT_STUDENT_NUMBER);
+    }
+
+    private void insertSection(String sectionId, Days days, LocalTime start, LocalTime end, String roomName,
+                               int numberOfStudents) {
+        jdbcTemplate.update(
+                "INSERT INTO section (section_id, number_of_students, days, start_time, end_time, room_name, subject_subject_id, version)" +
+                        " VALUES (?, ?, ?, ?, ?, ?, ?, 0)",
+                sectionId, numberOfStudents, days.ordinal(), start, end, roomName, DEFAULT_SUBJECT_ID);
+    }
+
+    private List<String> findSectionIds(SectionFilter filter) {
+        return sectionRepository.findAll(filter.ofSubject(DEFAULT_SUBJECT_ID).toSpecification(), firstPage)
+                .map(Section::getSectionId).getContent();
+    }
+
+    @Test
+    void filter_by_days_and_time_window() {
+        assertAll(
+                () -> assertEquals(List.of("A1", "A2"), findSectionIds(SectionFilter.all().onDays(Days.MTH))),
+                () -> assertEquals(List.of("A1", "A3"), findSectionIds(SectionFilter.all().endingBy(LocalTime.of(12, 0)))),
+                () -> assertEquals(List.of("A2"), findSectionIds(SectionFilter.all().startingFrom(LocalTime.of(12, 0))))
+        );
+    }
+
+    @Test
+    void filter_by_room_open_seats_and_not_enlisted() {
+        Student student = studentRepository.findById(DEFAULT_STUDENT_NUMBER).orElseThrow();
+        assertAll(
+                () -> assertEquals(List.of("A2", "A3"), findSectionIds(SectionFilter.all().inRoom("big"))),
+                () -> assertEquals(List.of("A2", "A3"), findSectionIds(SectionFilter.all().withOpenSeats(true))),
+                () -> assertEquals(List.of("A1", "A3"), findSectionIds(SectionFilter.all().notEnlistedBy(student)))
+        );
+    }
+
+    @Test
+    void page_through_sections() {
+        Page<Section> secondPage = sectionRepository.findAll(
+                SectionFilter.all().ofSubject(DEFAULT_SUBJECT_ID).toSpecification(), PageRequest.of(1, 2, Sort.by("sectionId")));
+        assertAll(
+                () -> assertEquals(3, secondPage.getTotalElements()),
+                () -> assertEquals(List.of("A3"), secondPage.map(Section::getSectionId).getContent())
+        );
+    }
+}
@@ -0,0 +1,94 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.domain.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.*;
+import org.junit.jupiter.params.provider.*;
+import org.slf4j.*;
+import org.springframework.context.*;
+import org.springframework.jdbc.core.*;
+import org.springframework.test.web.servlet.*;
+import org.springframework.test.web.servlet.setup.*;
+import org.springframework.web.context.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static com.adriannebulao.enlistment.controllers.EnlistmentHarness.*;
+import static com.adriannebulao.enlistment.controllers.UserAction.*;
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Compares enlisting into one popular section on request threads, retried on conflicting updates,
+ * against handing the enlistments to the section's single writer.
+ */
+@Testcontainers
+class SectionWritersBenchmarkIT {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14")
+            .withDatabaseName("enlistment").withUsername("enlistment").withPassword("enlistment");
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SectionWritersBenchmarkIT.class);
+
+    private final static int NUMBER_OF_STUDENTS = 200;
+    private final static int CAPACITY = 50;
+
+    private ConfigurableApplicationContext instance;
+
+    @AfterEach
+    void stopInstance() {
+        instance.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"request-thread", "single-writer"})
+    void enlist_concurrently_students_beyond_capacity(String execution) throws Exception {
+        // Given many students and a section w/ fewer seats than students
+        instance = startInstance(POSTGRES, "enlistment.seat-allocation=in-memory", "enlistment.execution=" + execution);
+        JdbcTemplate jdbcTemplate = instance.getBean(JdbcTemplate.class);
+        insertStudents(jdbcTemplate, NUMBER_OF_STUDENTS);
+        insertSection(jdbcTemplate, DEFAULT_SECTION_ID, "roomName", CAPACITY, DEFAULT_SUBJECT_ID, Days.MTH);
+
+        // When all of them enlist at the same time
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) instance).build();
+        StudentRepository studentRepository = instance.getBean(StudentRepository.class);
+        List<Callable<Void>> enlistments = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_STUDENTS; i++) {
+            final int studentNumber = FIRST_STUDENT_NUMBER + i;
+            Student student = studentRepository.findById(studentNumber).orElseThrow(() ->
+                    new NoSuchElementException("No student w/ student num " + studentNumber + " found in DB."));
+            enlistments.add(() -> {
+                mockMvc.perform(post("/enlist").sessionAttr(EnlistController.STUDENT_NUMBER, student.getStudentNumber())
+                        .param("sectionId", DEFAULT_SECTION_ID).param("userAction", ENLIST.name()));
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_STUDENTS);
+        Instant start = Instant.now();
+        try {
+            for (Future<Void> enlistment : executor.invokeAll(enlistments)) {
+                enlistment.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Duration elapsed = Duration.between(start, Instant.now());
+        LOGGER.info("{} enlistments: {}", execution, throughput(NUMBER_OF_STUDENTS, elapsed));
+
+        // Then the section is filled exactly up to capacity, never over it
+        int numberOfStudents = jdbcTemplate.queryForObject(
+                "SELECT number_of_students FROM section WHERE section_id = ?", Integer.class, DEFAULT_SECTION_ID);
+        int enlisted = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM student_sections WHERE sections_section_id = ?", Integer.class, DEFAULT_SECTION_ID);
+        assertAll(
+                () -> assertEquals(CAPACITY, numberOfStudents),
+                () -> assertEquals(CAPACITY, enlisted)
+        );
+    }
+}
@@ -68,7 +68,8 @@ class SectionsControllerIT  {
                 .param("days", "MTH")
                 .param("start", "08:30")
                 .param("end", "10:30")
-                .param("roomName", roomName));
+                .param("roomName", roomName)
+                .param("facultyNumber", String.valueOf(DEFAULT_FACULTY_NUMBER)));
 
         // Then a new record in the sections table will be created
         int count = jdbcTemplate.queryForObject(
@@ -76,6 +77,36 @@ class SectionsControllerIT  {
         assertEquals(1, count);
     }
 
+    @Test
+    void createSection_same_instructor_overlapping_sked() throws Exception {
+        // Given an instructor already teaching a section
+        insertRoomAndSubjectToDB();
+        jdbcTemplate.update("INSERT INTO room (name, capacity) VALUES (?, ?)", "otherRoom", 1);
+        createSection("FIRST", "roomName", "08:30", "10:00");
+
+        // When another section overlapping it, in another room, is given the same instructor
+        createSection("SECOND", "otherRoom", "09:00", "10:30");
+
+        // Then only the first section is saved, & the instructor's slots are those of the first section
+        assertAll(
+                () -> assertEquals(List.of("FIRST"), jdbcTemplate.queryForList(
+                        "SELECT section_id FROM section WHERE instructor_faculty_number = ?", String.class, DEFAULT_FACULTY_NUMBER)),
+                () -> assertEquals(0b111L, jdbcTemplate.queryForObject( // MTH 8:30am - 10:00am
+                        "SELECT occupancy FROM faculty WHERE faculty_number = ?", Long.class, DEFAULT_FACULTY_NUMBER))
+        );
+    }
+
+    private void createSection(String sectionId, String roomName, String start, String end) throws Exception {
+        mockMvc.perform(post("/sections").sessionAttr("admin", adminRepository.findById(1).get())
+                .param("sectionId", sectionId)
+                .param("subjectId", DEFAULT_SUBJECT_ID)
+                .param("days", "MTH")
+                .param("start", start)
+                .param("end", end)
+                .param("roomName", roomName)
+                .param("facultyNumber", String.valueOf(DEFAULT_FACULTY_NUMBER)));
+    }
+
     @Test
     void createSameSection_two_admin() throws Exception {
         // Given
@@ -97,6 +128,8 @@ class SectionsControllerIT  {
         final String roomName = "roomName";
         jdbcTemplate.update("INSERT INTO room (name, capacity) VALUES (?, ?)", roomName, 1);
         jdbcTemplate.update("INSERT INTO subject (subject_id) VALUES (?)", DEFAULT_SUBJECT_ID);
+        jdbcTemplate.update("INSERT INTO faculty (faculty_number, firstname, lastname) VALUES (?, ?, ?)",
+                DEFAULT_FACULTY_NUMBER, "firstname", "lastname");
     }
 
     private void insertTwoAdmins() {
@@ -142,7 +175,8 @@ class SectionsControllerIT  {
                         .param("days", "MTH")
                         .param("start", "08:30")
                         .param("end", "10:30")
-                        .param("roomName", "roomName"));
+                        .param("roomName", "roomName")
+                        .param("facultyNumber", String.valueOf(DEFAULT_FACULTY_NUMBER)));
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
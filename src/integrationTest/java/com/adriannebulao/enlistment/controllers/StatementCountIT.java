@@ -0,0 +1,96 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.domain.*;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.test.autoconfigure.web.servlet.*;
+import org.springframework.boot.test.context.*;
+import org.springframework.jdbc.core.*;
+import org.springframework.test.annotation.*;
+import org.springframework.test.context.*;
+import org.springframework.test.web.servlet.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.*;
+
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Holds the listing pages to a fixed number of SQL statements, however many sections, subjects & enlisted
+ * sections there are. The catalog expires right away, so every request to the enlist page reloads it.
+ */
+@Testcontainers
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {"enlistment.statement-count.enabled=true", "enlistment.catalog.expire-after=0s"})
+class StatementCountIT {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14")
+            .withDatabaseName("enlistment").withUsername("enlistment").withPassword("enlistment");
+
+    @DynamicPropertySource
+    private static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    private final static int STUDENT_NUMBER = 1; // from import.sql
+    private final static int ADMIN_ID = 1; // from import.sql
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private int nextSection = 0;
+
+    @Test
+    void listing_pages_run_as_many_statements_however_many_sections() throws Exception {
+        // Given more sections than fit in a page, each of its own subject, some enlisted in by the student
+        jdbcTemplate.update("INSERT INTO room (name, capacity) VALUES ('big', 100)");
+        insertSections(25);
+        int enlistPage = countStatements("GET /enlist", get("/enlist").param("studentNumber", String.valueOf(STUDENT_NUMBER)));
+        int sectionsPage = countStatements("GET /sections", get("/sections").param("id", String.valueOf(ADMIN_ID)));
+
+        // When there are twice as many of them
+        insertSections(25);
+
+        // Then the pages run the same statements as before
+        assertAll(
+                () -> assertEquals(enlistPage,
+                        countStatements("GET /enlist", get("/enlist").param("studentNumber", String.valueOf(STUDENT_NUMBER)))),
+                () -> assertEquals(sectionsPage,
+                        countStatements("GET /sections", get("/sections").param("id", String.valueOf(ADMIN_ID))))
+        );
+    }
+
+    private int countStatements(String endpoint, RequestBuilder request) throws Exception {
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statementCounter.getLastCount(endpoint).orElseThrow();
+    }
+
+    /** Inserts sections w/ subjects of their own, the student enlisted in every fifth one **/
+    private void insertSections(int numberOfSections) {
+        for (int i = 0; i < numberOfSections; i++, nextSection++) {
+            String sectionId = "S" + nextSection;
+            String subjectId = "Subject" + nextSection;
+            jdbcTemplate.update("INSERT INTO subject (subject_id) VALUES (?)", subjectId);
+            jdbcTemplate.update(
+                    "INSERT INTO section (section_id, number_of_students, days, start_time, end_time, room_name, subject_subject_id, version)" +
+                            " VALUES (?, 0, ?, ?, ?, 'big', ?, 0)",
+                    sectionId, Days.values()[nextSection % Days.values().length].ordinal(),
+                    LocalTime.of(8, 30), LocalTime.of(10, 0), subjectId);
+            if (nextSection % 5 == 0) {
+                jdbcTemplate.update("INSERT INTO student_sections (student_student_number, sections_section_id) VALUES (?, ?)",
+                        STUDENT_NUMBER, sectionId);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.domain.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.*;
+import org.junit.jupiter.params.provider.*;
+import org.slf4j.*;
+import org.springframework.context.*;
+import org.springframework.jdbc.core.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.*;
+
+import java.net.*;
+import java.net.http.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static com.adriannebulao.enlistment.controllers.EnlistmentHarness.*;
+import static com.adriannebulao.enlistment.controllers.UserAction.*;
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Compares Tomcat serving requests on its pool of platform threads against a virtual thread per request, as
+ * {@code spring.threads.virtual.enabled} has it, w/ 1k & 10k students enlisting at once over HTTP. The students
+ * are clients of a non-blocking {@link HttpClient}, so the client side needs no thread per student either way.
+ * The virtual thread runs are skipped on JDKs older than 21.
+ */
+@Testcontainers
+class VirtualThreadLoadIT {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14")
+            .withDatabaseName("enlistment").withUsername("enlistment").withPassword("enlistment");
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadLoadIT.class);
+
+    private ConfigurableApplicationContext instance;
+
+    @AfterEach
+    void stopInstance() {
+        if (instance != null) {
+            instance.close();
+        }
+    }
+
+    @ParameterizedTest(name = "{0} threads, {1} students")
+    @CsvSource({"platform, 1000", "virtual, 1000", "platform, 10000", "virtual, 10000"})
+    void enlist_concurrently_students_beyond_capacity(String threads, int numberOfStudents) throws Exception {
+        boolean virtual = threads.equals("virtual");
+        assumeTrue(!virtual || Runtime.version().feature() >= 21, "virtual threads need JDK 21+");
+
+        // Given many students, each logged in, and a section w/ seats for half of them
+        final int capacity = numberOfStudents / 2;
+        instance = startInstance(POSTGRES, "spring.threads.virtual.enabled=" + virtual,
+                "enlistment.login.max-student-number=" + (FIRST_STUDENT_NUMBER + numberOfStudents - 1));
+        JdbcTemplate jdbcTemplate = instance.getBean(JdbcTemplate.class);
+        insertStudents(jdbcTemplate, numberOfStudents);
+        insertSection(jdbcTemplate, DEFAULT_SECTION_ID, "roomName", capacity, DEFAULT_SUBJECT_ID, Days.MTH);
+        URI app = baseUri(instance);
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        List<CompletableFuture<String>> loggingIn = new ArrayList<>();
+        for (int i = 0; i < numberOfStudents; i++) {
+            loggingIn.add(logIn(client, app, FIRST_STUDENT_NUMBER + i));
+        }
+        List<String> sessions = loggingIn.stream().map(CompletableFuture::join).toList();
+
+        // When all of them enlist at the same time
+        long[] latencyNanos = new long[numberOfStudents];
+        List<CompletableFuture<Integer>> enlistments = new ArrayList<>();
+        String form = "sectionId=" + DEFAULT_SECTION_ID + "&userAction=" + ENLIST.name();
+        Instant start = Instant.now();
+        for (int i = 0; i < numberOfStudents; i++) {
+            final int index = i;
+            HttpRequest enlist = HttpRequest.newBuilder(app.resolve("enlist"))
+                    .header("Cookie", sessions.get(i))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form)).build();
+            long sentAt = System.nanoTime();
+            enlistments.add(client.sendAsync(enlist, HttpResponse.BodyHandlers.discarding()).thenApply(response -> {
+                latencyNanos[index] = System.nanoTime() - sentAt;
+                return response.statusCode();
+            }));
+        }
+        CompletableFuture.allOf(enlistments.toArray(CompletableFuture[]::new)).get(10, TimeUnit.MINUTES);
+        Duration elapsed = Duration.between(start, Instant.now());
+        LOGGER.info("{} threads, enlistments: {}; {}", threads, throughput(numberOfStudents, elapsed), latencies(latencyNanos));
+
+        // Then every request was answered w/ the redirect back to the enlist page, and the section is filled
+        // exactly up to capacity, never over it
+        int numberOfStudentsInSection = jdbcTemplate.queryForObject(
+                "SELECT number_of_students FROM section WHERE section_id = ?", Integer.class, DEFAULT_SECTION_ID);
+        int enlisted = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM student_sections WHERE sections_section_id = ?", Integer.class, DEFAULT_SECTION_ID);
+        assertAll(
+                () -> assertEquals(List.of(), enlistments.stream().map(CompletableFuture::join).filter(status -> status != 302).toList()),
+                () -> assertEquals(capacity, numberOfStudentsInSection),
+                () -> assertEquals(capacity, enlisted)
+        );
+    }
+}
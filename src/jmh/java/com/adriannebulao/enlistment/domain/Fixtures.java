@@ -0,0 +1,59 @@
+package com.adriannebulao.enlistment.domain;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Domain objects for the benchmarks, built the way the app builds them but w/o a database.
+ * Every section gets a half-hour slot of its own: slot {@code i} is on {@code Days.values()[i % 3]},
+ * starting {@code i / 3} half hours after 8:30am, so up to {@link #MAX_SLOTS} sections never overlap.
+ */
+final class Fixtures {
+
+    /** Half-hour slots in a week, i.e. the most sections that can be enlisted at once **/
+    static final int MAX_SLOTS = Days.values().length * Period.SLOTS_PER_DAY;
+
+    private static final LocalTime EARLIEST_START = LocalTime.of(8, 30);
+    private static final AtomicInteger NEXT_FACULTY_NUMBER = new AtomicInteger(1000);
+
+    static Schedule scheduleOfSlot(int slot) {
+        LocalTime start = EARLIEST_START.plusMinutes(30L * (slot / Days.values().length));
+        return Schedule.of(Days.values()[slot % Days.values().length], Period.of(start, start.plusMinutes(30)));
+    }
+
+    /** An instructor of their own for each section, so that sections only conflict where a benchmark means them to **/
+    static Faculty newInstructor() {
+        return new Faculty(NEXT_FACULTY_NUMBER.getAndIncrement(), "firstname", "lastname");
+    }
+
+    /** Sections of distinct subjects, each in a room of its own, w/ an instructor of its own & in a slot of its own **/
+    static List<Section> sectionsInSlots(String prefix, int count) {
+        List<Section> sections = new ArrayList<>(count);
+        for (int slot = 0; slot < count; slot++) {
+            sections.add(new Section(prefix + slot, new Subject(prefix + "Subject" + slot), scheduleOfSlot(slot),
+                    new Room(prefix + "Room" + slot, 40), newInstructor()));
+        }
+        return sections;
+    }
+
+    /** A chain of subjects, each requiring the one before it; the last one requires all the others **/
+    static List<Subject> prerequisiteChain(String prefix, int depth) {
+        List<Subject> chain = new ArrayList<>(depth + 1);
+        for (int i = 0; i <= depth; i++) {
+            chain.add(new Subject(prefix + i, i == 0 ? List.of() : List.of(chain.get(i - 1))));
+        }
+        return chain;
+    }
+
+    static long[] ordinalsOf(Collection<Subject> subjects) {
+        long[] bits = SubjectOrdinals.EMPTY;
+        for (Subject subject : subjects) {
+            bits = SubjectOrdinals.with(bits, subject.ordinal());
+        }
+        return bits;
+    }
+
+    private Fixtures() {
+    }
+}
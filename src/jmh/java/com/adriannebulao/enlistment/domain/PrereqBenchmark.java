@@ -0,0 +1,73 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * {@link Subject#checkPrereqs} & {@link Section#checkPrereqs} of a subject at the end of a chain of
+ * prerequisites, for a student who took all of them and for one missing the first, whose refusal
+ * collects & names the missing prerequisites.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PrereqBenchmark {
+
+    @Param({"1", "4", "16", "64"})
+    int prerequisiteDepth;
+
+    private Subject subject;
+    private Section section;
+    private long[] allTaken;
+    private long[] firstMissing;
+
+    @Setup
+    public void setUp() {
+        List<Subject> chain = Fixtures.prerequisiteChain("P" + prerequisiteDepth + "x", prerequisiteDepth);
+        subject = chain.get(prerequisiteDepth);
+        List<Subject> prerequisites = chain.subList(0, prerequisiteDepth);
+        allTaken = Fixtures.ordinalsOf(prerequisites);
+        firstMissing = Fixtures.ordinalsOf(prerequisites.subList(1, prerequisiteDepth));
+        section = new Section("Prereq", subject, Schedule.of(Days.MTH, Period.of(LocalTime.of(8, 30), LocalTime.of(10, 0))),
+                new Room("PrereqRoom", 40), Fixtures.newInstructor());
+        subject.checkPrereqs(allTaken); // computes the closure, as the first enlistment would
+    }
+
+    @Benchmark
+    public Subject subjectPrereqsTaken() {
+        subject.checkPrereqs(allTaken);
+        return subject;
+    }
+
+    @Benchmark
+    public Object subjectPrereqMissing() {
+        try {
+            subject.checkPrereqs(firstMissing);
+            throw new IllegalStateException("should have missed a prerequisite");
+        } catch (PrereqMissingException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Section sectionPrereqsTaken() {
+        section.checkPrereqs(allTaken);
+        return section;
+    }
+
+    @Benchmark
+    public Object sectionPrereqMissing() {
+        try {
+            section.checkPrereqs(firstMissing);
+            throw new IllegalStateException("should have missed a prerequisite");
+        } catch (PrereqMissingException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * {@link Room#addSection} for a room w/ a given number of sections: filling a new room w/ all of them, and
+ * adding a section to the filled room in a slot already taken, which throws a {@link ScheduleConflictException}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RoomBenchmark {
+
+    @Param({"1", "6", "24", "54"})
+    int sectionsPerRoom;
+
+    private List<Section> sections;
+    private Room filled;
+    private Section taken;
+
+    @Setup
+    public void setUp() {
+        sections = Fixtures.sectionsInSlots("R", sectionsPerRoom);
+        filled = new Room("Filled", 40, sections);
+        taken = sections.get(sectionsPerRoom - 1);
+    }
+
+    /** Adds every section to a new room, one slot at a time **/
+    @Benchmark
+    public Room fillRoom() {
+        return new Room("Filling", 40, sections);
+    }
+
+    @Benchmark
+    public Object addSectionInTakenSlot() {
+        try {
+            filled.addSection(taken);
+            throw new IllegalStateException("should have been taken");
+        } catch (ScheduleConflictException e) {
+            return e;
+        }
+    }
+}
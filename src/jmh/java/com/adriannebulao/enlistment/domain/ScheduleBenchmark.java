@@ -0,0 +1,58 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.*;
+import java.util.concurrent.*;
+
+/**
+ * {@link Period#checkOverlap} & {@link Schedule#checkOverlap}, both when they don't overlap and when they do,
+ * throwing a {@link ScheduleConflictException} whose message names both.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ScheduleBenchmark {
+
+    private final Period morning = Period.of(LocalTime.of(8, 30), LocalTime.of(10, 0));
+    private final Period lateMorning = Period.of(LocalTime.of(9, 30), LocalTime.of(11, 0));
+    private final Period afternoon = Period.of(LocalTime.of(13, 0), LocalTime.of(14, 30));
+    private final Schedule mthMorning = Schedule.of(Days.MTH, morning);
+    private final Schedule tfMorning = Schedule.of(Days.TF, morning);
+    private final Schedule mthLateMorning = Schedule.of(Days.MTH, lateMorning);
+
+    @Benchmark
+    public Period periodsApart() {
+        morning.checkOverlap(afternoon);
+        return morning;
+    }
+
+    @Benchmark
+    public Object periodsOverlapping() {
+        try {
+            morning.checkOverlap(lateMorning);
+            throw new IllegalStateException("should have overlapped");
+        } catch (ScheduleConflictException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Schedule schedulesOnOtherDays() {
+        mthMorning.checkOverlap(tfMorning);
+        return mthMorning;
+    }
+
+    @Benchmark
+    public Object schedulesOverlapping() {
+        try {
+            mthMorning.checkOverlap(mthLateMorning);
+            throw new IllegalStateException("should have overlapped");
+        } catch (ScheduleConflictException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * {@link Student#enlist} & {@link Student#cancel} of a student already enlisted in some sections, w/ the
+ * in-memory seat count, and each way an enlistment is refused. The sections enlisted in take up the first
+ * slots of the week, and the section enlisted in the last one. A refusal builds its message & exception,
+ * so compare its allocation rate ({@code -prof gc}) to that of an accepted enlistment.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StudentBenchmark {
+
+    @Param({"1", "6", "24", "53"})
+    int enlistedSections;
+
+    private Student student;
+    private Section open;
+    private Section overlapping;
+    private Section sameSubject;
+    private Section prereqMissing;
+    private Section full;
+
+    @Setup
+    public void setUp() {
+        List<Section> enlisted = Fixtures.sectionsInSlots("E", enlistedSections);
+        Subject takenSubject = new Subject("Taken");
+        student = new Student(1, "first", "last", enlisted, List.of(takenSubject));
+        Schedule lastSlot = Fixtures.scheduleOfSlot(Fixtures.MAX_SLOTS - 1);
+        open = new Section("Open", new Subject("OpenSubject", List.of(takenSubject)), lastSlot, new Room("OpenRoom", 40),
+                Fixtures.newInstructor());
+        prereqMissing = new Section("Missing", new Subject("MissingSubject", List.of(new Subject("NotTaken"))),
+                lastSlot, new Room("MissingRoom", 40), Fixtures.newInstructor());
+        full = new Section("Full", new Subject("FullSubject"), lastSlot, new Room("FullRoom", 40),
+                Fixtures.newInstructor(), 40);
+        // conflicting w/ the first enlisted section, the others being in the slots after it
+        overlapping = new Section("Overlapping", new Subject("OverlappingSubject"), enlisted.get(0).getSchedule(),
+                new Room("OverlappingRoom", 40), Fixtures.newInstructor());
+        sameSubject = new Section("Same", enlisted.get(0).getSubject(), lastSlot, new Room("SameRoom", 40),
+                Fixtures.newInstructor());
+    }
+
+    /** Enlists & cancels again, so the student is back where it started for the next invocation **/
+    @Benchmark
+    public Student enlistThenCancel() {
+        student.enlist(open);
+        student.cancel(open);
+        return student;
+    }
+
+    @Benchmark
+    public Object enlistWithScheduleConflict() {
+        return refusal(overlapping);
+    }
+
+    @Benchmark
+    public Object enlistWithSameSubject() {
+        return refusal(sameSubject);
+    }
+
+    @Benchmark
+    public Object enlistWithPrereqMissing() {
+        return refusal(prereqMissing);
+    }
+
+    @Benchmark
+    public Object enlistInFullSection() {
+        return refusal(full);
+    }
+
+    /** Copies the enlisted sections, as every caller of the getter does **/
+    @Benchmark
+    public Collection<Section> getSections() {
+        return student.getSections();
+    }
+
+    private Object refusal(Section section) {
+        try {
+            student.enlist(section);
+            throw new IllegalStateException(section + " should have been refused");
+        } catch (EnlistmentException e) {
+            return e;
+        }
+    }
+}
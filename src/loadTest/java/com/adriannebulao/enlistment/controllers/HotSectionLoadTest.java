@@ -0,0 +1,211 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.domain.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.*;
+import org.junit.jupiter.params.provider.*;
+import org.slf4j.*;
+import org.springframework.context.*;
+import org.springframework.jdbc.core.*;
+import org.springframework.transaction.support.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.*;
+
+import java.net.*;
+import java.net.http.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static com.adriannebulao.enlistment.controllers.EnlistmentHarness.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Thousands of students, each a client on a virtual thread of its own, enlisting in & cancelling from a few
+ * hot sections at once, over HTTP through the JSON API of an app instance running against PostgreSQL.
+ * Reports the throughput, the p50, p95 & p99 latencies of enlisting & cancelling, and the conflicts retried,
+ * for each way of counting seats, and for hot sections claiming seats from a {@link SeatInventory};
+ * run it before & after changing how seats are claimed.
+ * <p>
+ * While the clients run, and once they are done, every hot section must have at most as many students as
+ * its room has seats, and exactly as many as it has rows in {@code student_sections}. The students of a section
+ * are those it counts, or those holding seats of its inventory if it has one.
+ * <p>
+ * Run w/ {@code ./gradlew loadTest}, on JDK 21+, optionally w/ {@code -PloadTest.students=10000}.
+ */
+@Testcontainers
+class HotSectionLoadTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14")
+            .withDatabaseName("enlistment").withUsername("enlistment").withPassword("enlistment");
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HotSectionLoadTest.class);
+
+    private final static int NUMBER_OF_STUDENTS = Integer.getInteger("loadTest.students", 3000);
+    private final static int HOT_SECTIONS = 3;
+    /** Enough seats for a third of the students of each section, so that sections fill up under load **/
+    private final static int CAPACITY = Math.max(1, NUMBER_OF_STUDENTS / HOT_SECTIONS / 3);
+    /** Every this many students cancel after enlisting, then enlist again **/
+    private final static int CANCELLING_EVERY = 4;
+    /** Hot sections switched over to a seat inventory, the other sections counting seats by conditional update **/
+    private final static String SEAT_INVENTORY = "seat-inventory";
+    /** How often the invariants are checked while the clients run **/
+    private final static Duration CHECK_EVERY = Duration.ofMillis(50);
+
+    private ConfigurableApplicationContext instance;
+
+    @AfterEach
+    void stopInstance() {
+        if (instance != null) {
+            instance.close();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"conditional-update", "advisory-lock", "in-memory", SEAT_INVENTORY})
+    void enlist_and_cancel_concurrently_in_hot_sections(String seatAllocation) throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual thread clients need JDK 21+");
+
+        // Given many students and a few hot sections w/ seats for a third of the students picking each
+        instance = startInstance(POSTGRES,
+                "spring.datasource.hikari.maximum-pool-size=50",
+                "spring.threads.virtual.enabled=true",
+                "enlistment.login.max-student-number=" + (FIRST_STUDENT_NUMBER + NUMBER_OF_STUDENTS - 1),
+                "enlistment.seat-allocation=" + (seatAllocation.equals(SEAT_INVENTORY) ? "conditional-update" : seatAllocation));
+        JdbcTemplate jdbcTemplate = instance.getBean(JdbcTemplate.class);
+        insertStudents(jdbcTemplate, NUMBER_OF_STUDENTS);
+        insertHotSections(jdbcTemplate);
+        if (seatAllocation.equals(SEAT_INVENTORY)) {
+            enableSeatInventories(instance);
+        }
+        URI app = baseUri(instance);
+        URI api = app.resolve("api/");
+        SectionRetries.Statistics retriesBefore = instance.getBean(SectionRetries.class).getTotals();
+
+        // When all of them enlist at the same time, some of them cancelling & enlisting again
+        Queue<Long> enlistLatencies = new ConcurrentLinkedQueue<>();
+        Queue<Long> cancelLatencies = new ConcurrentLinkedQueue<>();
+        Map<Integer, AtomicInteger> statuses = new ConcurrentSkipListMap<>();
+        List<String> violations = new CopyOnWriteArrayList<>();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor();
+        checker.scheduleWithFixedDelay(() -> violations.addAll(checkInvariants(jdbcTemplate)),
+                0, CHECK_EVERY.toMillis(), TimeUnit.MILLISECONDS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Void>> clients = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_STUDENTS; i++) {
+            int studentNumber = FIRST_STUDENT_NUMBER + i;
+            URI section = api.resolve("students/" + studentNumber + "/sections/" + hotSectionId(i % HOT_SECTIONS));
+            boolean cancelling = i % CANCELLING_EVERY == 0;
+            clients.add(() -> {
+                String session = logIn(client, app, studentNumber).join(); // the API only acts for the student logged in
+                start.await();
+                int status = send(client, HttpRequest.newBuilder(section).header("Cookie", session)
+                        .POST(HttpRequest.BodyPublishers.noBody()), enlistLatencies, statuses);
+                if (status == 204 && cancelling) {
+                    send(client, HttpRequest.newBuilder(section).header("Cookie", session).DELETE(), cancelLatencies, statuses);
+                    send(client, HttpRequest.newBuilder(section).header("Cookie", session)
+                            .POST(HttpRequest.BodyPublishers.noBody()), enlistLatencies, statuses);
+                }
+                return null;
+            });
+        }
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        long startedAt = System.nanoTime();
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            clients.forEach(c -> results.add(executor.submit(c)));
+            start.countDown();
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+            checker.shutdown();
+            checker.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        SectionRetries.Statistics retriesAfter = instance.getBean(SectionRetries.class).getTotals();
+
+        int requests = enlistLatencies.size() + cancelLatencies.size();
+        LOGGER.info("{}: {} students, requests: {}", seatAllocation, NUMBER_OF_STUDENTS, throughput(requests, elapsed));
+        LOGGER.info("  enlist: {}", latencies(enlistLatencies));
+        LOGGER.info("  cancel: {}", latencies(cancelLatencies));
+        LOGGER.info("  responses by status: {}; conflicts retried: {}, gave up busy: {}", statuses,
+                retriesAfter.conflicts() - retriesBefore.conflicts(), retriesAfter.busy() - retriesBefore.busy());
+
+        // Then no section ever went over capacity or out of step w/ its enlisted students, nor did it at the end
+        violations.addAll(checkInvariants(jdbcTemplate));
+        int enlisted = jdbcTemplate.queryForObject("SELECT count(*) FROM student_sections", Integer.class);
+        assertAll(
+                () -> assertEquals(List.of(), violations),
+                () -> assertTrue(enlisted <= HOT_SECTIONS * CAPACITY, "more students enlisted than seats: " + enlisted),
+                () -> assertEquals(0, statuses.keySet().stream().filter(status -> status >= 500 && status != 503).count(),
+                        "server errors: " + statuses)
+        );
+    }
+
+    /** Sends the request & records its latency & status, whatever the status **/
+    private static int send(HttpClient client, HttpRequest.Builder request, Queue<Long> latencies,
+                            Map<Integer, AtomicInteger> statuses) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        latencies.add(System.nanoTime() - start);
+        statuses.computeIfAbsent(response.statusCode(), status -> new AtomicInteger()).incrementAndGet();
+        return response.statusCode();
+    }
+
+    /**
+     * Checks each hot section in one statement, so the count & the rows are of the same committed state.
+     *
+     * @return what was violated, if anything
+     */
+    private static List<String> checkInvariants(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.query(
+                "SELECT s.section_id, r.capacity," +
+                        " CASE WHEN s.seat_inventory" +
+                        " THEN (SELECT count(*) FROM seat WHERE seat.section_section_id = s.section_id AND seat.student_number IS NOT NULL)" +
+                        " ELSE s.number_of_students END AS number_of_students," +
+                        " (SELECT count(*) FROM student_sections ss WHERE ss.sections_section_id = s.section_id) AS enlisted" +
+                        " FROM section s JOIN room r ON r.name = s.room_name WHERE s.section_id LIKE 'Hot%'",
+                (rs, rowNum) -> {
+                    String sectionId = rs.getString("section_id");
+                    int numberOfStudents = rs.getInt("number_of_students");
+                    int capacity = rs.getInt("capacity");
+                    int enlisted = rs.getInt("enlisted");
+                    if (numberOfStudents > capacity) {
+                        return sectionId + " has " + numberOfStudents + " students, over its capacity of " + capacity;
+                    }
+                    if (numberOfStudents != enlisted) {
+                        return sectionId + " counts " + numberOfStudents + " students, but has " + enlisted + " enlisted";
+                    }
+                    return null;
+                }).stream().filter(Objects::nonNull).toList();
+    }
+
+    private static String hotSectionId(int index) {
+        return "Hot" + index;
+    }
+
+    /** Switches the hot sections over to a seat inventory, as an admin does on the sections page **/
+    private static void enableSeatInventories(ApplicationContext instance) {
+        SectionRepository sectionRepo = instance.getBean(SectionRepository.class);
+        SeatInventory seatInventory = instance.getBean(SeatInventory.class);
+        instance.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+            for (int i = 0; i < HOT_SECTIONS; i++) {
+                seatInventory.enableFor(sectionRepo.findById(hotSectionId(i)).orElseThrow());
+            }
+        });
+    }
+
+    /** Each in a room of its own, on different days, of different subjects, so a student may enlist in all **/
+    private static void insertHotSections(JdbcTemplate jdbcTemplate) {
+        for (int i = 0; i < HOT_SECTIONS; i++) {
+            insertSection(jdbcTemplate, hotSectionId(i), "HotRoom" + i, CAPACITY, "HotSubject" + i,
+                    Days.values()[i % Days.values().length]);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.adriannebulao.enlistment.controllers;
+
+import java.util.*;
+
+/**
+ * Thrown when a batch enlistment could not enlist in all of its sections, so that none of it is committed.
+ */
+public class BatchEnlistmentException extends RuntimeException {
+
+    private final Map<String, String> results;
+
+    BatchEnlistmentException(Map<String, String> results) {
+        super("could not enlist in all of the sections " + results.keySet());
+        this.results = Collections.unmodifiableMap(new LinkedHashMap<>(results));
+    }
+
+    /** The result of each section of the batch, by section ID **/
+    public Map<String, String> getResults() {
+        return results;
+    }
+}
@@ -1,19 +1,21 @@
 package com.adriannebulao.enlistment.controllers;
 
 import com.adriannebulao.enlistment.domain.*;
-import org.hibernate.*;
 import org.springframework.beans.factory.annotation.*;
+import org.springframework.data.domain.*;
 import org.springframework.orm.*;
 import org.springframework.retry.annotation.*;
 import org.springframework.stereotype.*;
+import org.springframework.transaction.support.*;
 import org.springframework.ui.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.*;
 import org.springframework.web.servlet.view.*;
 
-import jakarta.persistence.*;
 import jakarta.transaction.*;
+import java.time.*;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.*;
 import java.util.stream.*;
 
@@ -23,28 +25,44 @@ import static org.apache.commons.lang3.Validate.notNull;
 @Transactional
 @Controller
 @RequestMapping("enlist")
-@SessionAttributes("student")
+@SessionAttributes(EnlistController.STUDENT_NUMBER)
 class EnlistController {
 
+    static final int PAGE_SIZE = 20;
+    /** All the HTTP session keeps of a logged-in student; the student is fetched afresh for each request **/
+    static final String STUDENT_NUMBER = "studentNumber";
+
     @Autowired
     private SectionRepository sectionRepo;
     @Autowired
     private StudentRepository studentRepo;
-    @PersistenceContext
-    private EntityManager entityManager;
+    @Autowired
+    private SeatAllocator seatAllocator;
+    @Autowired
+    private SectionCatalog sectionCatalog;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired(required = false)
+    private SectionWriters sectionWriters;
+    @Autowired
+    private SectionRetries sectionRetries;
+    /** Students from 1 to this may log in; the login page lists the first 3 **/
+    @Value("${enlistment.login.max-student-number:3}")
+    private int maxStudentNumber = 3;
 
     @ModelAttribute
     public void initStudent(Model model, Integer studentNumber) {
-        Student student = (Student) model.getAttribute("student");
-        if (studentNumber == null && student == null) {
-            throw new LoginException("both studentNumber & student are null");
+        if (studentNumber == null && !model.containsAttribute(STUDENT_NUMBER)) {
+            throw new LoginException("studentNumber is null & no student is logged in");
         }
-        if (studentNumber != null && (studentNumber < 1 || studentNumber > 3)) {
+        if (studentNumber != null && (studentNumber < 1 || studentNumber > maxStudentNumber)) {
             throw new LoginException("studentNumber out of range, was: " + studentNumber);
         }
         if (studentNumber != null) {
-            student = studentRepo.findById(studentNumber).orElseThrow(() -> new NoSuchElementException("No student for studentNumber " + studentNumber));
-            model.addAttribute(student);
+            if (!studentRepo.existsById(studentNumber)) {
+                throw new NoSuchElementException("No student for studentNumber " + studentNumber);
+            }
+            model.addAttribute(STUDENT_NUMBER, studentNumber);
         }
         model.addAttribute("isRetry", false);
 
@@ -56,43 +74,133 @@ class EnlistController {
     }
 
 
+    /**
+     * Shows the enlisted sections and one page of the sections available to the student, optionally
+     * narrowed down by days, time window, subject, room and open seats.
+     */
     @GetMapping
-    public String showSections(Model model, @ModelAttribute Student student) {
-        var enlistedSections = student.getSections();
-        model.addAttribute("enlistedSections", enlistedSections);
-        model.addAttribute("availableSections", sectionRepo.findAll().stream()
-                .filter(sec -> !enlistedSections.contains(sec)).collect(Collectors.toList()));
+    public String showSections(Model model, @ModelAttribute(STUDENT_NUMBER) Integer studentNumber,
+                               @RequestParam(required = false) Days days,
+                               @RequestParam(required = false) String from, @RequestParam(required = false) String to,
+                               @RequestParam(required = false) String subjectId,
+                               @RequestParam(required = false) String roomName,
+                               @RequestParam(defaultValue = "false") boolean openSeats,
+                               @RequestParam(defaultValue = "0") int page) {
+        Student student = findStudent(studentNumber);
+        model.addAttribute(student);
+        SectionFilter filter = SectionFilter.all()
+                .onDays(days)
+                .startingFrom(parseTime(from))
+                .endingBy(parseTime(to))
+                .ofSubject(subjectId)
+                .inRoom(roomName)
+                .withOpenSeats(openSeats)
+                .notEnlistedBy(student);
+        Page<SectionSummary> availableSections = sectionCatalog.getSections(filter, PageRequest.of(Math.max(0, page), PAGE_SIZE));
+        model.addAttribute("enlistedSections", student.getSections());
+        model.addAttribute("availableSections", availableSections.getContent());
+        model.addAttribute("availablePage", availableSections);
+        // tell the student up front which sections would be refused, and why, instead of after a failed POST
+        model.addAttribute("eligibility", student.checkEligibility(availableSections.getContent()));
         return "enlist";
     }
 
-    @Retryable(retryFor = ObjectOptimisticLockingFailureException.class, maxAttempts = 10)
+    static LocalTime parseTime(String time) {
+        return time == null || time.isBlank() ? null : LocalTime.parse(time);
+    }
+
+    /**
+     * The student w/ just what enlisting & the enlist page need, see
+     * {@link StudentRepository#findWithSectionsByStudentNumber(int)}
+     */
+    private Student findStudent(int studentNumber) {
+        return studentRepo.findWithSectionsByStudentNumber(studentNumber)
+                .orElseThrow(() -> new NoSuchElementException("No student for studentNumber " + studentNumber));
+    }
+
+    /**
+     * Enlists or cancels on the request thread, retrying on concurrent updates of the section as
+     * {@link SectionRetries} sees fit, or hands the action to the section's single writer when
+     * {@code enlistment.execution=single-writer} and waits for it. Runs outside the class's transaction, so
+     * a request waiting on the writer or backing off holds no connection.
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     @PostMapping
-    public String enlistOrCancel(@ModelAttribute Student student, @RequestParam String sectionId,
+    public String enlistOrCancel(@ModelAttribute(STUDENT_NUMBER) Integer studentNumber, @RequestParam String sectionId,
                                  @RequestParam UserAction userAction) {
-        Section section = sectionRepo.findById(sectionId).orElseThrow(() -> new RuntimeException("Section not found"));
-
-        updateAndAct(student, section, userAction);
+        if (sectionWriters != null) {
+            awaitWriter(sectionWriters.submit(studentNumber, sectionId, userAction));
+            return "redirect:enlist";
+        }
+        sectionRetries.run(sectionId, () -> transactionTemplate.executeWithoutResult(status -> {
+            EnlistmentMetrics.timeFlush();
+            Section section = sectionRepo.findWithPrerequisitesBySectionId(sectionId)
+                    .orElseThrow(() -> new RuntimeException("Section not found"));
+            Student student = findStudent(studentNumber);
 
-        sectionRepo.save(section);
-        studentRepo.save(student);
+            userAction.act(student, section, seatAllocator);
 
+            studentRepo.save(student); // the section's seat count is written by the seatAllocator
+        }));
         return "redirect:enlist";
     }
 
+    private static void awaitWriter(CompletableFuture<Void> result) {
+        try {
+            result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause; // e.g. an EnlistmentException, shown to the student as usual
+            }
+            throw e;
+        }
+    }
+
     /**
-     * Updates the student entity and performs the specified user action.
+     * Enlists in all the given sections in one transaction, or in none of them. Runs on the request thread even
+     * when {@code enlistment.execution=single-writer}, since it must commit across the sections of several
+     * writers at once; it takes its {@link EnlistmentLocks} once, before updating any section, which is what lets
+     * it run alongside the writers, see {@link SectionWriters}.
      *
-     * @param student   the student to update
-     * @param section   the section to enlist or cancel
-     * @param userAction the action to perform (ENLIST or CANCEL)
+     * @param studentNumber the number of the student enlisting
+     * @param sectionIds    the IDs of the sections to enlist in
+     * @throws BatchEnlistmentException with the result of each section, if any section could not be enlisted
      */
-    private void updateAndAct(Student student, Section section, UserAction userAction) {
-        Session session = entityManager.unwrap(Session.class);
-        session.update(student);
-        if (userAction == UserAction.ENLIST) {
-            session.refresh(student); // Only refresh if enlisting
+    @Retryable(retryFor = ObjectOptimisticLockingFailureException.class, maxAttempts = 10,
+            backoff = @Backoff(delay = 5, multiplier = 2, maxDelay = 500, random = true))
+    @PostMapping("batch")
+    public String enlistAll(@ModelAttribute(STUDENT_NUMBER) Integer studentNumber, @RequestParam List<String> sectionIds,
+                            RedirectAttributes redirectAttrs) {
+        Map<String, Section> sections = sectionRepo.findAllById(sectionIds).stream()
+                .collect(Collectors.toMap(Section::getSectionId, Function.identity()));
+        boolean allFound = sections.keySet().containsAll(sectionIds);
+        Map<Section, Eligibility> refusals = Collections.emptyMap();
+        Student student = null;
+        if (allFound) {
+            student = findStudent(studentNumber);
+            refusals = student.enlistAll(sections.values(), seatAllocator);
+        }
+
+        Map<String, String> results = new TreeMap<>();
+        boolean allEnlisted = allFound && refusals.isEmpty();
+        for (String sectionId : sectionIds) {
+            Section section = sections.get(sectionId);
+            if (section == null) {
+                results.put(sectionId, "No section found with section ID: " + sectionId);
+            } else if (refusals.containsKey(section)) {
+                results.put(sectionId, student.explainRefusal(refusals.get(section), section));
+            } else {
+                results.put(sectionId, allEnlisted ? "Enlisted" : "Not enlisted, since not all sections could be");
+            }
+        }
+        if (!allEnlisted) {
+            throw new BatchEnlistmentException(results); // rolls back the whole batch
         }
-        userAction.act(student, section);
+
+        EnlistmentMetrics.timeFlush();
+        studentRepo.save(student); // the sections' seat counts are written by the seatAllocator
+        redirectAttrs.addFlashAttribute("batchEnlistmentResults", results);
+        return "redirect:/enlist";
     }
 
     @ExceptionHandler(EnlistmentException.class)
@@ -101,6 +209,19 @@ class EnlistController {
         return "redirect:enlist";
     }
 
+    @ExceptionHandler(BatchEnlistmentException.class)
+    public String handleBatchException(RedirectAttributes redirectAttrs, BatchEnlistmentException e) {
+        redirectAttrs.addFlashAttribute("enlistmentExceptionMessage", e.getMessage());
+        redirectAttrs.addFlashAttribute("batchEnlistmentResults", e.getResults());
+        return "redirect:/enlist";
+    }
+
+    @ExceptionHandler(SectionBusyException.class)
+    public String handleBusy(RedirectAttributes redirectAttrs, SectionBusyException e) {
+        redirectAttrs.addFlashAttribute("enlistmentExceptionMessage", e.getMessage());
+        return "redirect:enlist";
+    }
+
     void setSectionRepo(SectionRepository sectionRepo) {
         this.sectionRepo = sectionRepo;
     }
@@ -109,24 +230,51 @@ class EnlistController {
         this.studentRepo = studentRepo;
     }
 
-    void setEntityManager(EntityManager entityManager) {
-        this.entityManager = entityManager;
+    void setSeatAllocator(SeatAllocator seatAllocator) {
+        this.seatAllocator = seatAllocator;
+    }
+
+    void setSectionCatalog(SectionCatalog sectionCatalog) {
+        this.sectionCatalog = sectionCatalog;
+    }
+
+    void setTransactionTemplate(TransactionTemplate transactionTemplate) {
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    void setSectionWriters(SectionWriters sectionWriters) {
+        this.sectionWriters = sectionWriters;
+    }
+
+    void setSectionRetries(SectionRetries sectionRetries) {
+        this.sectionRetries = sectionRetries;
     }
 
 }
 
 enum UserAction {
-    ENLIST(Student::enlist),
+    /** Enlists, making the exception of a refusal only here, where it is surfaced, see {@link Student#tryEnlist} **/
+    ENLIST((student, section, seatAllocator) -> {
+        Eligibility result = student.tryEnlist(section, seatAllocator);
+        if (!result.isEnlistable()) {
+            throw student.refusal(result, section);
+        }
+    }),
     CANCEL(Student::cancel);
 
-    private final BiConsumer<Student, Section> action;
+    private final Action action;
 
-    UserAction(BiConsumer<Student, Section> action) {
+    UserAction(Action action) {
         this.action = action;
     }
 
-    void act(Student student, Section section) {
-        action.accept(student, section);
+    void act(Student student, Section section, SeatAllocator seatAllocator) {
+        action.act(student, section, seatAllocator);
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void act(Student student, Section section, SeatAllocator seatAllocator);
     }
 
 }
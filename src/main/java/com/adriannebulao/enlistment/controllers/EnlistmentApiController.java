@@ -0,0 +1,239 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.domain.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.data.domain.*;
+import org.springframework.http.*;
+import org.springframework.transaction.annotation.*;
+import org.springframework.transaction.support.*;
+import org.springframework.util.*;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.*;
+
+import java.nio.charset.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * JSON API for clients other than the enlist page: the sections, a student's timetable, enlisting & cancelling.
+ * Listings carry a strong ETag computed from what they show, so clients polling w/ {@code If-None-Match}
+ * get {@code 304 Not Modified}, w/o a body, until a seat is taken or given back. Clients that would rather
+ * not poll subscribe to the stream of seats taken & given back instead.
+ * <p>
+ * A student's timetable & enlistments are only for the student logged in on the session, as on the enlist page;
+ * the student number in the path must be theirs.
+ */
+@RestController
+@RequestMapping("api")
+class EnlistmentApiController {
+
+    @Autowired
+    private SectionRepository sectionRepo;
+    @Autowired
+    private StudentRepository studentRepo;
+    @Autowired
+    private SeatAllocator seatAllocator;
+    @Autowired
+    private SectionCatalog sectionCatalog;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired(required = false)
+    private SectionWriters sectionWriters;
+    @Autowired
+    private SeatUpdates seatUpdates;
+    @Autowired
+    private SectionRetries sectionRetries;
+
+    /** A section as listed; {@code taken} is the number of students **/
+    record SectionJson(String id, String subject, String schedule, String room, int capacity, int taken) {
+        static SectionJson of(SectionSummary section) {
+            return new SectionJson(section.getSectionId(), section.getSubject(), section.getSchedule().toString(),
+                    section.getRoom(), section.getCapacity(), section.getNumberOfStudents());
+        }
+    }
+
+    record SectionPageJson(int page, int totalPages, long totalSections, List<SectionJson> sections) {
+    }
+
+    /** An enlisted section **/
+    record TimetableEntryJson(String id, String subject, String schedule, String room) {
+        static TimetableEntryJson of(Section section) {
+            return new TimetableEntryJson(section.getSectionId(), section.getSubject().toString(),
+                    section.getSchedule().toString(), section.getRoom().getName());
+        }
+    }
+
+    record ErrorJson(String message) {
+    }
+
+    /**
+     * One page of the sections, filtered like on the enlist page, from the {@link SectionCatalog}.
+     */
+    @GetMapping("sections")
+    public ResponseEntity<SectionPageJson> getSections(@RequestParam(required = false) Days days,
+                                                       @RequestParam(required = false) String from,
+                                                       @RequestParam(required = false) String to,
+                                                       @RequestParam(required = false) String subjectId,
+                                                       @RequestParam(required = false) String roomName,
+                                                       @RequestParam(defaultValue = "false") boolean openSeats,
+                                                       @RequestParam(defaultValue = "0") int page) {
+        SectionFilter filter = SectionFilter.all()
+                .onDays(days)
+                .startingFrom(EnlistController.parseTime(from))
+                .endingBy(EnlistController.parseTime(to))
+                .ofSubject(subjectId)
+                .inRoom(roomName)
+                .withOpenSeats(openSeats);
+        Page<SectionSummary> sections = sectionCatalog.getSections(filter, PageRequest.of(Math.max(0, page), EnlistController.PAGE_SIZE));
+        // sections never change but for their number of students, so that & the page is all the ETag needs
+        StringBuilder state = new StringBuilder().append(sections.getNumber()).append('/').append(sections.getTotalElements());
+        sections.forEach(section -> state.append(';').append(section.getSectionId()).append('=').append(section.getNumberOfStudents()));
+        SectionPageJson body = new SectionPageJson(sections.getNumber(), sections.getTotalPages(), sections.getTotalElements(),
+                sections.map(SectionJson::of).getContent());
+        return conditional(state, body);
+    }
+
+    /**
+     * Streams the seats taken & given back, see {@link SeatUpdates}.
+     */
+    @GetMapping(value = "sections/seats", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeats() {
+        return seatUpdates.subscribe();
+    }
+
+    /**
+     * The sections the student is enlisted in, ordered by section ID.
+     */
+    @Transactional(readOnly = true)
+    @GetMapping("students/{studentNumber}/timetable")
+    public ResponseEntity<List<TimetableEntryJson>> getTimetable(@SessionAttribute(name = EnlistController.STUDENT_NUMBER, required = false) Integer loggedIn,
+                                                                 @PathVariable int studentNumber) {
+        checkLoggedInAs(loggedIn, studentNumber);
+        List<TimetableEntryJson> body = findStudent(studentNumber).getSections().stream()
+                .map(TimetableEntryJson::of)
+                .sorted(Comparator.comparing(TimetableEntryJson::id))
+                .toList();
+        StringBuilder state = new StringBuilder();
+        body.forEach(entry -> state.append(entry.id()).append(';'));
+        return conditional(state, body);
+    }
+
+    @PostMapping("students/{studentNumber}/sections/{sectionId}")
+    public ResponseEntity<Void> enlist(@SessionAttribute(name = EnlistController.STUDENT_NUMBER, required = false) Integer loggedIn,
+                                       @PathVariable int studentNumber, @PathVariable String sectionId) {
+        checkLoggedInAs(loggedIn, studentNumber);
+        act(studentNumber, sectionId, UserAction.ENLIST);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("students/{studentNumber}/sections/{sectionId}")
+    public ResponseEntity<Void> cancel(@SessionAttribute(name = EnlistController.STUDENT_NUMBER, required = false) Integer loggedIn,
+                                       @PathVariable int studentNumber, @PathVariable String sectionId) {
+        checkLoggedInAs(loggedIn, studentNumber);
+        act(studentNumber, sectionId, UserAction.CANCEL);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Acts on the request thread, retrying as {@link SectionRetries} sees fit, or through the section's
+     * single writer, like {@link EnlistController}
+     */
+    private void act(int studentNumber, String sectionId, UserAction userAction) {
+        if (sectionWriters != null) {
+            try {
+                sectionWriters.submit(studentNumber, sectionId, userAction).join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            return;
+        }
+        sectionRetries.run(sectionId, () -> transactionTemplate.executeWithoutResult(status -> {
+            EnlistmentMetrics.timeFlush();
+            Section section = sectionRepo.findWithPrerequisitesBySectionId(sectionId)
+                    .orElseThrow(() -> new NoSuchElementException("No section found with section ID: " + sectionId));
+            Student student = findStudent(studentNumber);
+            userAction.act(student, section, seatAllocator);
+            studentRepo.save(student); // the section's seat count is written by the seatAllocator
+        }));
+    }
+
+    /** The session's student number is only ever set by {@link EnlistController}, once it checked the student **/
+    private static void checkLoggedInAs(Integer loggedIn, int studentNumber) {
+        if (loggedIn == null) {
+            throw new LoginException("no student is logged in");
+        }
+        if (loggedIn != studentNumber) {
+            throw new LoginException("student " + loggedIn + " is logged in, not student " + studentNumber);
+        }
+    }
+
+    private Student findStudent(int studentNumber) {
+        return studentRepo.findWithSectionsByStudentNumber(studentNumber)
+                .orElseThrow(() -> new NoSuchElementException("No student for studentNumber " + studentNumber));
+    }
+
+    /**
+     * Answers w/ a strong ETag of the given state, which Spring compares to the request's {@code If-None-Match}
+     * to send {@code 304 Not Modified} instead of the body; clients are told to always revalidate.
+     */
+    private static <T> ResponseEntity<T> conditional(CharSequence state, T body) {
+        String etag = '"' + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + '"';
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(body);
+    }
+
+    @ExceptionHandler(EnlistmentException.class)
+    public ResponseEntity<ErrorJson> handleException(EnlistmentException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorJson(e.getMessage()));
+    }
+
+    @ExceptionHandler(LoginException.class)
+    public ResponseEntity<ErrorJson> handleLogin(LoginException e) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorJson(e.getMessage()));
+    }
+
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<ErrorJson> handleNotFound(NoSuchElementException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorJson(e.getMessage()));
+    }
+
+    /** Tells the client when to try again, rounded up to a whole second **/
+    @ExceptionHandler(SectionBusyException.class)
+    public ResponseEntity<ErrorJson> handleBusy(SectionBusyException e) {
+        long retryAfter = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(new ErrorJson(e.getMessage()));
+    }
+
+    void setSectionRepo(SectionRepository sectionRepo) {
+        this.sectionRepo = sectionRepo;
+    }
+
+    void setStudentRepo(StudentRepository studentRepo) {
+        this.studentRepo = studentRepo;
+    }
+
+    void setSeatAllocator(SeatAllocator seatAllocator) {
+        this.seatAllocator = seatAllocator;
+    }
+
+    void setSectionCatalog(SectionCatalog sectionCatalog) {
+        this.sectionCatalog = sectionCatalog;
+    }
+
+    void setTransactionTemplate(TransactionTemplate transactionTemplate) {
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    void setSectionWriters(SectionWriters sectionWriters) {
+        this.sectionWriters = sectionWriters;
+    }
+
+    void setSeatUpdates(SeatUpdates seatUpdates) {
+        this.seatUpdates = seatUpdates;
+    }
+
+    void setSectionRetries(SectionRetries sectionRetries) {
+        this.sectionRetries = sectionRetries;
+    }
+}
@@ -0,0 +1,166 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.domain.*;
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.binder.*;
+import org.slf4j.*;
+import org.springframework.beans.factory.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.stereotype.*;
+import org.springframework.transaction.support.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.apache.commons.lang3.Validate.*;
+
+/**
+ * Exposes where enlistment time goes, as Micrometer meters scraped from {@code /actuator/prometheus}:
+ * <ul>
+ *     <li>{@code enlistment.phase}, timed per phase: conflict check, prereq check, lock wait, seat reserve &
+ *     release, and flush (& commit)</li>
+ *     <li>{@code enlistment.refusals}, counted per reason, e.g. {@code full}</li>
+ *     <li>{@code enlistment.retry.attempts}, {@code .conflicts} & {@code .busy}, of the optimistic locking
+ *     retries of {@link SectionRetries}</li>
+ *     <li>{@code enlistment.section.seat.fill} & {@code enlistment.section.conflicts}, per section</li>
+ * </ul>
+ * Every tag but the section has a fixed set of values. To keep the number of series bounded however many
+ * sections there are, only the fullest & the most contended sections get a gauge of their own; the others
+ * are left out until they make it to the top, and sections dropping out of it are removed. The fill of the
+ * sections is only taken from the {@link SectionCatalog} as it is kept in memory; while the catalog is not
+ * kept, e.g. when there are too many sections, the fill gauges are left as they are rather than read from
+ * the database.
+ */
+@Component
+class EnlistmentMetrics implements MeterBinder, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EnlistmentMetrics.class);
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "enlistment-metrics");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final SectionCatalog sectionCatalog;
+    private final SectionRetries sectionRetries;
+    private final int topSections;
+    private volatile MultiGauge seatFill;
+    private volatile MultiGauge sectionConflicts;
+
+    EnlistmentMetrics(SectionCatalog sectionCatalog, SectionRetries sectionRetries,
+                      @Value("${enlistment.metrics.top-sections:20}") int topSections,
+                      @Value("${enlistment.metrics.refresh:15s}") Duration refresh) {
+        isTrue(topSections >= 0, "topSections must be non-negative, was: " + topSections);
+        notNull(refresh, "refresh can't be null");
+        isTrue(!refresh.isNegative() && !refresh.isZero(), "refresh must be positive, was: " + refresh);
+        this.sectionCatalog = sectionCatalog;
+        this.sectionRetries = sectionRetries;
+        this.topSections = topSections;
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                refreshSections();
+            } catch (RuntimeException e) {
+                LOGGER.warn("could not refresh the section gauges", e); // and try again next time
+            }
+        }, refresh.toNanos(), refresh.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Times the flush & commit of the current transaction as {@link EnlistmentStatistics.Phase#FLUSH};
+     * does nothing outside of a transaction.
+     */
+    static void timeFlush() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long start;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                start = System.nanoTime(); // the transaction manager flushes as it commits, after this
+            }
+
+            @Override
+            public void afterCommit() {
+                EnlistmentStatistics.shared().record(EnlistmentStatistics.Phase.FLUSH, start);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        EnlistmentStatistics statistics = EnlistmentStatistics.shared();
+        for (EnlistmentStatistics.Phase phase : EnlistmentStatistics.Phase.values()) {
+            FunctionTimer.builder("enlistment.phase", statistics, s -> s.getCount(phase),
+                            s -> s.getTotalTime(phase).toNanos(), TimeUnit.NANOSECONDS)
+                    .tag("phase", phase.name().toLowerCase())
+                    .description("Time spent in a phase of enlisting & cancelling")
+                    .register(registry);
+        }
+        EnlistmentLocks locks = EnlistmentLocks.shared();
+        FunctionTimer.builder("enlistment.phase", locks, EnlistmentLocks::getAcquisitions,
+                        l -> l.getTotalWaitTime().toNanos(), TimeUnit.NANOSECONDS)
+                .tag("phase", "lock_wait")
+                .description("Time spent in a phase of enlisting & cancelling")
+                .register(registry);
+        TimeGauge.builder("enlistment.lock.wait.max", locks, TimeUnit.NANOSECONDS, l -> l.getMaxWaitTime().toNanos())
+                .description("Longest wait for the locks of a single enlistment")
+                .register(registry);
+
+        for (Eligibility reason : Eligibility.values()) {
+            if (!reason.isEnlistable()) {
+                FunctionCounter.builder("enlistment.refusals", statistics, s -> s.getRefusals(reason))
+                        .tag("reason", reason.name().toLowerCase())
+                        .description("Enlistments refused")
+                        .register(registry);
+            }
+        }
+
+        FunctionCounter.builder("enlistment.retry.attempts", sectionRetries, r -> r.getTotals().attempts())
+                .description("Attempts to enlist or cancel on the request thread")
+                .register(registry);
+        FunctionCounter.builder("enlistment.retry.conflicts", sectionRetries, r -> r.getTotals().conflicts())
+                .description("Attempts that conflicted w/ a concurrent update of their section, and were retried")
+                .register(registry);
+        FunctionCounter.builder("enlistment.retry.busy", sectionRetries, r -> r.getTotals().busy())
+                .description("Requests that ran out of attempts & were told the section is busy")
+                .register(registry);
+
+        seatFill = MultiGauge.builder("enlistment.section.seat.fill")
+                .description("Share of the seats taken, of the fullest sections only")
+                .register(registry);
+        sectionConflicts = MultiGauge.builder("enlistment.section.conflicts")
+                .description("Optimistic locking conflicts, of the most contended sections only")
+                .register(registry);
+    }
+
+    /** Points the per-section gauges at the sections now at the top, removing those of the others **/
+    void refreshSections() {
+        if (seatFill == null || sectionConflicts == null) {
+            return; // not bound to a registry yet
+        }
+        sectionCatalog.getKeptSections().ifPresent(sections -> seatFill.register(sections.stream()
+                .filter(section -> section.getCapacity() > 0)
+                .sorted(Comparator.comparingDouble(EnlistmentMetrics::fill).reversed()
+                        .thenComparing(SectionSummary::getSectionId))
+                .limit(topSections)
+                .<MultiGauge.Row<?>>map(section -> MultiGauge.Row.of(Tags.of("section", section.getSectionId()), fill(section)))
+                .toList(), true));
+        sectionConflicts.register(sectionRetries.getStatistics().entrySet().stream()
+                .filter(entry -> entry.getValue().conflicts() > 0)
+                .limit(topSections)
+                .<MultiGauge.Row<?>>map(entry -> MultiGauge.Row.of(Tags.of("section", entry.getKey()), entry.getValue().conflicts()))
+                .toList(), true);
+    }
+
+    private static double fill(SectionSummary section) {
+        return (double) section.getNumberOfStudents() / section.getCapacity();
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+}
@@ -0,0 +1,231 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.domain.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.*;
+import org.springframework.beans.factory.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.http.*;
+import org.springframework.stereotype.*;
+import org.springframework.transaction.event.*;
+import org.springframework.web.servlet.mvc.method.annotation.*;
+
+import java.io.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.apache.commons.lang3.Validate.*;
+
+/**
+ * Streams the seats taken & given back to any number of subscribers, as Server-Sent Events. Changes are
+ * collected as they commit and sent once per window, summed up per section, e.g. {@code {"ABC":3,"DEF":-1}},
+ * so a rush of enlistments makes one small event per window instead of one per enlistment. Each event is
+ * serialized once for all subscribers, then queued for each of them; a few sending threads write the queued
+ * events, one subscriber at a time per thread, in order.
+ * <p>
+ * Each subscriber is held to its own send timeout, counted from when its write started rather than from when
+ * the window was sent, so subscribers waiting for a sending thread are not held to it. A subscriber whose
+ * write takes longer than that, whose write fails, or who is more than the queue size of events behind, is
+ * completed w/ the reason and dropped on its own. A write that stalled still holds its sending thread until
+ * the container gives up on the connection; the others go on w/ the remaining threads.
+ * <p>
+ * Subscribers are async requests, which hold no request thread while idle; a comment is sent when there was
+ * nothing to send for a while, to find out about subscribers that went away. Subscribers get the seats of
+ * the sections from {@code GET /api/sections}, then keep them up to date w/ the changes.
+ */
+@Component
+class SeatUpdates implements DisposableBean {
+
+    static final String EVENT_NAME = "seats";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SeatUpdates.class);
+
+    private final ConcurrentMap<String, Integer> pending = new ConcurrentHashMap<>();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "seat-updates");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService senders;
+    private final ObjectMapper objectMapper;
+    private final long heartbeatNanos;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final int queueSize;
+    private long lastSentAt = System.nanoTime();
+
+    SeatUpdates(ObjectMapper objectMapper,
+                @Value("${enlistment.seat-updates.window:1s}") Duration window,
+                @Value("${enlistment.seat-updates.heartbeat:15s}") Duration heartbeat,
+                @Value("${enlistment.seat-updates.timeout:30m}") Duration timeout,
+                @Value("${enlistment.seat-updates.send-timeout:5s}") Duration sendTimeout,
+                @Value("${enlistment.seat-updates.send-threads:8}") int sendThreads,
+                @Value("${enlistment.seat-updates.queue-size:8}") int queueSize) {
+        notNull(window, "window can't be null");
+        isTrue(!window.isNegative() && !window.isZero(), "window must be positive, was: " + window);
+        notNull(sendTimeout, "sendTimeout can't be null");
+        isTrue(!sendTimeout.isNegative() && !sendTimeout.isZero(), "sendTimeout must be positive, was: " + sendTimeout);
+        isTrue(sendThreads > 0, "sendThreads must be greater than zero, was: " + sendThreads);
+        isTrue(queueSize > 0, "queueSize must be greater than zero, was: " + queueSize);
+        this.objectMapper = objectMapper;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.queueSize = queueSize;
+        this.senders = Executors.newFixedThreadPool(sendThreads, runnable -> {
+            Thread thread = new Thread(runnable, "seat-updates-send");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sender.scheduleWithFixedDelay(() -> {
+            try {
+                send();
+            } catch (RuntimeException e) {
+                LOGGER.warn("could not send seat updates", e); // and keep on sending the next windows
+            }
+        }, window.toNanos(), window.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /** A new subscriber, sent the changes from the next window on **/
+    SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(SseEmitter subscriber) {
+        Subscription subscription = new Subscription(subscriber);
+        subscriber.onCompletion(() -> subscriptions.remove(subscription));
+        subscriber.onTimeout(() -> subscriptions.remove(subscription));
+        subscriber.onError(e -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+        return subscriber;
+    }
+
+    int getNumberOfSubscribers() {
+        return subscriptions.size();
+    }
+
+    @TransactionalEventListener
+    void onSeatsChanged(SectionCatalog.SeatsChanged event) {
+        pending.merge(event.sectionId(), event.seats(), Integer::sum);
+    }
+
+    /**
+     * Sends the changes summed up since the last window, or a heartbeat if there were none for a while, after
+     * dropping the subscribers whose write is taking longer than the send timeout; run by the sender thread only.
+     *
+     * @return the changes sent, by section ID, leaving out sections whose changes cancelled each other out
+     */
+    Map<String, Integer> send() {
+        Map<String, Integer> changes = new TreeMap<>();
+        for (String sectionId : pending.keySet()) {
+            Integer seats = pending.remove(sectionId); // a change merged after this goes in the next window
+            if (seats != null && seats != 0) {
+                changes.put(sectionId, seats);
+            }
+        }
+        long now = System.nanoTime();
+        for (Subscription subscription : subscriptions) {
+            if (subscription.isStalledAt(now)) {
+                subscription.drop(new TimeoutException("not written to within " + Duration.ofNanos(sendTimeoutNanos)));
+            }
+        }
+        try {
+            if (!changes.isEmpty()) {
+                sendToAll(SseEmitter.event().name(EVENT_NAME).data(objectMapper.writeValueAsString(changes), MediaType.APPLICATION_JSON));
+                lastSentAt = now;
+            } else if (now - lastSentAt >= heartbeatNanos) {
+                sendToAll(SseEmitter.event().comment("heartbeat"));
+                lastSentAt = now;
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return changes;
+    }
+
+    /** Queues the event for every subscriber; serialized once, the event is shared by all their queues **/
+    private void sendToAll(SseEmitter.SseEventBuilder event) {
+        Set<ResponseBodyEmitter.DataWithMediaType> data = event.build();
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(data);
+        }
+    }
+
+    /**
+     * A subscriber & the events yet to be written to it. While events are queued, one sending thread at a time
+     * writes them, so a subscriber's events are written in order, and a slow subscriber holds up only itself.
+     */
+    private class Subscription implements Runnable {
+
+        private static final long NOT_WRITING = Long.MIN_VALUE;
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> events = new ArrayBlockingQueue<>(queueSize);
+        private final AtomicBoolean writing = new AtomicBoolean();
+        /** When the write under way started, or {@link #NOT_WRITING} **/
+        private volatile long writeStartedAt = NOT_WRITING;
+
+        Subscription(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> data) {
+            if (!events.offer(data)) {
+                drop(new IllegalStateException("more than " + queueSize + " events behind"));
+                return;
+            }
+            if (writing.compareAndSet(false, true)) {
+                senders.execute(this);
+            }
+        }
+
+        boolean isStalledAt(long now) {
+            long startedAt = writeStartedAt;
+            return startedAt != NOT_WRITING && now - startedAt > sendTimeoutNanos;
+        }
+
+        /** Writes the queued events, until there are none left; run by a sending thread **/
+        @Override
+        public void run() {
+            while (true) {
+                for (Set<ResponseBodyEmitter.DataWithMediaType> data; (data = events.poll()) != null; ) {
+                    writeStartedAt = System.nanoTime();
+                    try {
+                        emitter.send(data);
+                    } catch (IOException | RuntimeException e) {
+                        drop(e); // went away, or already completed
+                        return;
+                    } finally {
+                        writeStartedAt = NOT_WRITING;
+                    }
+                }
+                writing.set(false);
+                // an event queued between the last poll and clearing the flag found no writer to start
+                if (events.isEmpty() || !writing.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+
+        void drop(Throwable reason) {
+            subscriptions.remove(this);
+            events.clear();
+            try {
+                emitter.completeWithError(reason);
+            } catch (IllegalStateException e) {
+                // already completed
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        sender.shutdownNow();
+        senders.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+    }
+}
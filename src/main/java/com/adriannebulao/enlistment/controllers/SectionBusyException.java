@@ -0,0 +1,28 @@
+package com.adriannebulao.enlistment.controllers;
+
+import java.time.*;
+
+/**
+ * Thrown when an enlistment kept conflicting w/ concurrent updates of its section until its retries ran out,
+ * so that the student is told to try again shortly rather than waiting on.
+ */
+public class SectionBusyException extends RuntimeException {
+
+    private final String sectionId;
+    private final Duration retryAfter;
+
+    SectionBusyException(String sectionId, Duration retryAfter, Throwable lastConflict) {
+        super("Section " + sectionId + " is busy, please try again in a moment", lastConflict);
+        this.sectionId = sectionId;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getSectionId() {
+        return sectionId;
+    }
+
+    /** How long to wait before trying again **/
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,141 @@
+package com.adriannebulao.enlistment.controllers;
+
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.orm.*;
+import org.springframework.stereotype.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+import static org.apache.commons.lang3.Validate.*;
+
+/**
+ * Retries enlistments that conflicted w/ concurrent updates of their section, backing off exponentially
+ * w/ full jitter, so that requests that collided once don't collide again in lockstep. The backoff also grows
+ * w/ the section's recent conflict rate: the busier the section, the longer everyone backs off from it.
+ * Once the attempts run out a {@link SectionBusyException} is thrown instead of trying any further.
+ * <p>
+ * Attempts, conflicts & requests that gave up are counted per section, to find the hot ones.
+ */
+@Component
+class SectionRetries {
+
+    /** Weight of the latest attempt in a section's conflict rate **/
+    private static final double RATE_WEIGHT = 0.2;
+
+    private final ConcurrentMap<String, Contention> sections = new ConcurrentHashMap<>();
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    SectionRetries(@Value("${enlistment.retry.max-attempts:10}") int maxAttempts,
+                   @Value("${enlistment.retry.initial-backoff:5ms}") Duration initialBackoff,
+                   @Value("${enlistment.retry.max-backoff:500ms}") Duration maxBackoff) {
+        isTrue(maxAttempts > 0, "maxAttempts must be greater than zero, was: " + maxAttempts);
+        notNull(initialBackoff, "initialBackoff can't be null");
+        notNull(maxBackoff, "maxBackoff can't be null");
+        isTrue(!initialBackoff.isNegative() && initialBackoff.compareTo(maxBackoff) <= 0,
+                "initialBackoff must be between zero & maxBackoff, was: " + initialBackoff);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    /** Per section: attempts, conflicts, requests that gave up, and the recent conflict rate **/
+    record Statistics(long attempts, long conflicts, long busy, double conflictRate) {
+    }
+
+    /**
+     * Runs the attempt, retrying it while it conflicts w/ a concurrent update; each attempt must run
+     * in a transaction of its own.
+     *
+     * @throws SectionBusyException if it still conflicted after the last attempt
+     */
+    <T> T run(String sectionId, Supplier<T> attempt) {
+        notNull(sectionId, "sectionId can't be null");
+        Contention contention = sections.computeIfAbsent(sectionId, id -> new Contention());
+        for (int attempts = 1; ; attempts++) {
+            contention.attempts.increment();
+            try {
+                T result = attempt.get();
+                contention.record(false);
+                return result;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                contention.conflicts.increment();
+                double rate = contention.record(true);
+                if (attempts >= maxAttempts) {
+                    contention.busy.increment();
+                    throw new SectionBusyException(sectionId, Duration.ofNanos(backoffNanos(attempts, rate)), e);
+                }
+                sleep(ThreadLocalRandom.current().nextLong(backoffNanos(attempts, rate) + 1)); // full jitter
+            }
+        }
+    }
+
+    void run(String sectionId, Runnable attempt) {
+        run(sectionId, () -> {
+            attempt.run();
+            return null;
+        });
+    }
+
+    /** Grows w/ the attempts & w/ the section's conflict rate, up to twice as fast for a section always in conflict **/
+    long backoffNanos(int attempts, double conflictRate) {
+        double backoff = initialBackoffNanos * Math.pow(2, Math.min(attempts - 1, 30)) * (1 + conflictRate);
+        return (long) Math.min(maxBackoffNanos, backoff);
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while backing off", e);
+        }
+    }
+
+    /** The statistics of every section that had an attempt, the sections w/ the most conflicts first **/
+    Map<String, Statistics> getStatistics() {
+        Map<String, Statistics> statistics = new LinkedHashMap<>();
+        sections.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().statistics()))
+                .sorted(Comparator.comparingLong((Map.Entry<String, Statistics> entry) -> entry.getValue().conflicts()).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .forEach(entry -> statistics.put(entry.getKey(), entry.getValue()));
+        return statistics;
+    }
+
+    /** Attempts, conflicts & requests that gave up, summed up over all sections **/
+    Statistics getTotals() {
+        long attempts = 0;
+        long conflicts = 0;
+        long busy = 0;
+        for (Contention contention : sections.values()) {
+            attempts += contention.attempts.sum();
+            conflicts += contention.conflicts.sum();
+            busy += contention.busy.sum();
+        }
+        return new Statistics(attempts, conflicts, busy, attempts == 0 ? 0 : (double) conflicts / attempts);
+    }
+
+    private static final class Contention {
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder busy = new LongAdder();
+        /** Exponentially weighted moving average of whether attempts conflicted, as the bits of a double **/
+        private final AtomicLong conflictRate = new AtomicLong(Double.doubleToLongBits(0));
+
+        private double record(boolean conflicted) {
+            long bits = conflictRate.updateAndGet(previous -> Double.doubleToLongBits(
+                    (1 - RATE_WEIGHT) * Double.longBitsToDouble(previous) + RATE_WEIGHT * (conflicted ? 1 : 0)));
+            return Double.longBitsToDouble(bits);
+        }
+
+        private Statistics statistics() {
+            return new Statistics(attempts.sum(), conflicts.sum(), busy.sum(), Double.longBitsToDouble(conflictRate.get()));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.domain.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.boot.thread.*;
+import org.springframework.core.env.*;
+import org.springframework.core.task.*;
+import org.springframework.stereotype.*;
+import org.springframework.transaction.support.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.apache.commons.lang3.Validate.*;
+
+/**
+ * Applies the enlistments & cancellations of each section one at a time, in the order they were submitted,
+ * instead of letting request threads compete for the section's count. Every section has a queue of its own,
+ * drained by a single writer thread (a virtual thread when {@code spring.threads.virtual.enabled} on JDK 21+)
+ * that is started when commands arrive and ends when the queue is empty. Consecutive commands are applied
+ * in one transaction, so they share one flush & commit, and the students of a batch are loaded in one query.
+ * <p>
+ * A writer holds the {@link EnlistmentLocks} of its section & of the students of a batch for the batch's whole
+ * transaction, acquired once before it touches the database. Were each action to take them in turn, the writer
+ * could wait on a stripe held by a batch enlistment on a request thread while that enlistment waits on a row
+ * the writer updated but has yet to commit.
+ * <p>
+ * A section's queue is made only for a section that exists, and is dropped once its writer finds it empty,
+ * so there are never more queues than sections being enlisted in. Commands are queued, writers started and
+ * queues dropped under the map's lock of the section, so a writer is never started for a section whose
+ * previous writer has yet to stop.
+ * <p>
+ * Only one writer per section runs within this app instance; other instances still contend on the
+ * section through the configured {@link SeatAllocator}.
+ */
+@Component
+@ConditionalOnProperty(name = "enlistment.execution", havingValue = "single-writer")
+class SectionWriters {
+
+    private final ConcurrentMap<String, SectionQueue> queues = new ConcurrentHashMap<>();
+    private final AtomicInteger writerCount = new AtomicInteger();
+    private final SimpleAsyncTaskExecutor writerThreads = new SimpleAsyncTaskExecutor("section-writer-");
+
+    private final SectionRepository sectionRepo;
+    private final StudentRepository studentRepo;
+    private final SeatAllocator seatAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+
+    SectionWriters(SectionRepository sectionRepo, StudentRepository studentRepo, SeatAllocator seatAllocator,
+                   TransactionTemplate transactionTemplate, Environment environment,
+                   @Value("${enlistment.single-writer.max-batch-size:32}") int maxBatchSize) {
+        isTrue(maxBatchSize > 0, "maxBatchSize must be greater than zero, was: " + maxBatchSize);
+        this.sectionRepo = sectionRepo;
+        this.studentRepo = studentRepo;
+        this.seatAllocator = seatAllocator;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
+        writerThreads.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+    }
+
+    /**
+     * Queues the action of the student on the section.
+     *
+     * @return completes once the action is committed, or exceptionally w/ the reason it was refused,
+     * e.g. a {@link NoSuchElementException} if there is no such section
+     */
+    CompletableFuture<Void> submit(int studentNumber, String sectionId, UserAction userAction) {
+        notNull(sectionId, "sectionId can't be null");
+        notNull(userAction, "userAction can't be null");
+        if (!queues.containsKey(sectionId) && !sectionRepo.existsById(sectionId)) {
+            return CompletableFuture.failedFuture(new NoSuchElementException("No section found with section ID: " + sectionId));
+        }
+        Command command = new Command(studentNumber, userAction, new CompletableFuture<>());
+        boolean[] startWriter = new boolean[1];
+        SectionQueue queue = queues.compute(sectionId, (id, existing) -> {
+            SectionQueue target = existing != null ? existing : new SectionQueue(id);
+            target.commands.add(command);
+            startWriter[0] = target.startWriting();
+            return target;
+        });
+        if (startWriter[0]) {
+            writerThreads.execute(queue::drain);
+        }
+        return command.result;
+    }
+
+    /** Number of sections w/ a queue, i.e. w/ commands queued or being applied **/
+    int getQueueCount() {
+        return queues.size();
+    }
+
+    /** Number of writers applying commands, at most one per section **/
+    int getWriterCount() {
+        return writerCount.get();
+    }
+
+    private record Command(int studentNumber, UserAction userAction, CompletableFuture<Void> result) {
+    }
+
+    private class SectionQueue {
+        private final String sectionId;
+        private final Queue<Command> commands = new ConcurrentLinkedQueue<>();
+        /** Whether a writer drains this queue; guarded by the map's lock of the section, see {@link #submit} **/
+        private boolean writing;
+
+        SectionQueue(String sectionId) {
+            this.sectionId = sectionId;
+        }
+
+        private void drain() {
+            while (true) {
+                List<Command> batch = new ArrayList<>(maxBatchSize);
+                for (Command command; batch.size() < maxBatchSize && (command = commands.poll()) != null; ) {
+                    batch.add(command);
+                }
+                if (!batch.isEmpty()) {
+                    apply(batch);
+                    continue;
+                }
+                // idle unless a command was queued since the last poll, and then dropped; a later command
+                // makes a new queue, w/ a writer of its own
+                queues.compute(sectionId, (id, queue) -> {
+                    if (!commands.isEmpty()) {
+                        return queue;
+                    }
+                    stopWriting();
+                    return queue == this ? null : queue;
+                });
+                if (!writing) {
+                    return;
+                }
+            }
+        }
+
+        private boolean startWriting() {
+            if (writing) {
+                return false;
+            }
+            writing = true;
+            writerCount.incrementAndGet();
+            return true;
+        }
+
+        private void stopWriting() {
+            writing = false;
+            writerCount.decrementAndGet();
+        }
+
+        private void apply(List<Command> batch) {
+            Map<Command, RuntimeException> refusals = new HashMap<>();
+            List<Integer> studentNumbers = batch.stream().map(Command::studentNumber).distinct().toList();
+            try (EnlistmentLocks.Held locks = EnlistmentLocks.shared().lock(sectionId, studentNumbers)) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    EnlistmentMetrics.timeFlush();
+                    Section section = sectionRepo.findWithPrerequisitesBySectionId(sectionId)
+                            .orElseThrow(() -> new NoSuchElementException("No section found with section ID: " + sectionId));
+                    Map<Integer, Student> students = new HashMap<>();
+                    studentRepo.findWithSectionsByStudentNumberIn(studentNumbers)
+                            .forEach(student -> students.put(student.getStudentNumber(), student));
+                    for (Command command : batch) {
+                        try {
+                            Student student = Optional.ofNullable(students.get(command.studentNumber())).orElseThrow(() ->
+                                    new NoSuchElementException("No student for studentNumber " + command.studentNumber()));
+                            command.userAction().act(student, section, seatAllocator);
+                        } catch (EnlistmentException | NoSuchElementException e) {
+                            refusals.put(command, e); // refused before changing anything, so the others still commit
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                batch.forEach(command -> command.result().completeExceptionally(e));
+                return;
+            }
+            for (Command command : batch) {
+                if (refusals.containsKey(command)) {
+                    command.result().completeExceptionally(refusals.get(command));
+                } else {
+                    command.result().complete(null);
+                }
+            }
+        }
+    }
+}
@@ -4,8 +4,12 @@ import com.adriannebulao.enlistment.domain.*;
 import com.adriannebulao.enlistment.domain.Period;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.*;
+import org.springframework.context.*;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.*;
+import org.springframework.http.MediaType;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.*;
 import org.springframework.transaction.annotation.*;
@@ -23,6 +27,8 @@ import java.util.*;
 @SessionAttributes("admin")
 class SectionsController {
 
+    static final int PAGE_SIZE = 20;
+
     @Autowired
     private SubjectRepository subjectRepo;
     @Autowired
@@ -31,36 +37,74 @@ class SectionsController {
     private RoomRepository roomRepo;
     @Autowired
     private SectionRepository sectionRepo;
+    @Autowired
+    private FacultyRepository facultyRepo;
+    @Autowired
+    private SeatInventory seatInventory;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    @Autowired
+    private SectionRetries sectionRetries;
 
     @ModelAttribute("admin")
     public Admin admin(Integer id) {
         return adminRepo.findById(id).orElseThrow(() -> new NoSuchElementException("no admin found for adminId " + id));
     }
 
+    /**
+     * Shows the page w/ one page of the sections, ordered by section ID.
+     */
     @GetMapping
-    public String showPage(Model model, Integer id) {
+    public String showPage(Model model, Integer id, @RequestParam(defaultValue = "0") int page) {
         Admin admin = id == null ? (Admin) model.getAttribute("admin") :
                 adminRepo.findById(id).orElseThrow(() -> new NoSuchElementException("no admin found for adminId " + id));
         model.addAttribute("admin", admin);
         model.addAttribute("subjects", subjectRepo.findAll());
         model.addAttribute("rooms", roomRepo.findAll());
-        model.addAttribute("sections", sectionRepo.findAll());
+        model.addAttribute("instructors", facultyRepo.findAll(Sort.by("facultyNumber")));
+        Page<Section> sections = sectionRepo.findAll(PageRequest.of(Math.max(0, page), PAGE_SIZE, Sort.by("sectionId")));
+        model.addAttribute("sections", sections.getContent());
+        model.addAttribute("sectionsPage", sections);
         return "sections";
     }
 
+    /**
+     * Shows the page with only the rooms & instructors that are free for the whole of the given schedule.
+     */
+    @GetMapping(params = {"days", "start", "end"})
+    public String showPageWithFreeRooms(Model model, Integer id, @RequestParam Days days,
+                                        @RequestParam String start, @RequestParam String end,
+                                        @RequestParam(defaultValue = "0") int page) {
+        String view = showPage(model, id, page);
+        try {
+            Schedule schedule = createSchedule(days, start, end);
+            model.addAttribute("rooms", roomRepo.findAllFreeAt(schedule));
+            model.addAttribute("instructors", facultyRepo.findAllFreeAt(schedule));
+            model.addAttribute("freeAt", schedule);
+        } catch (IllegalArgumentException | EnlistmentException e) {
+            model.addAttribute("sectionExceptionMessage", e.getMessage());
+        }
+        return view;
+    }
 
+    @Retryable(retryFor = ObjectOptimisticLockingFailureException.class, maxAttempts = 10,
+            backoff = @Backoff(delay = 5, multiplier = 2, maxDelay = 500, random = true))
     @PostMapping
     public String createSection(@RequestParam String sectionId, @RequestParam String subjectId, @RequestParam Days days,
                                 @RequestParam String start, @RequestParam String end, @RequestParam String roomName,
-                                RedirectAttributes redirectAttrs) {
+                                @RequestParam int facultyNumber, RedirectAttributes redirectAttrs) {
         try {
-            // Retrieve and validate Subject, Schedule, and Room
+            // Retrieve and validate Subject, Schedule, Room, and Instructor
             Subject subject = getSubjectById(subjectId);
             Schedule schedule = createSchedule(days, start, end);
             Room room = getRoomByName(roomName);
+            Faculty instructor = getFacultyByNumber(facultyNumber);
 
-            // Create and save new Section
-            sectionRepo.save(new Section(sectionId, subject, schedule, room));
+            // Create and save new Section, adding it to the section catalog once committed
+            Section section = sectionRepo.save(new Section(sectionId, subject, schedule, room, instructor));
+            eventPublisher.publishEvent(new SectionCatalog.SectionCreated(section));
 
             // Add success message to redirect attributes
             redirectAttrs.addFlashAttribute("sectionSuccessMessage", "Successfully created new section " + sectionId);
@@ -71,6 +115,50 @@ class SectionsController {
         return "redirect:sections";
     }
 
+    /**
+     * Switches a hot section over to claiming seats from a seat inventory, see {@link SeatInventory}.
+     */
+    @PostMapping("seatInventory")
+    public String enableSeatInventory(@RequestParam String sectionId, RedirectAttributes redirectAttrs) {
+        try {
+            Section section = sectionRepo.findById(sectionId)
+                    .orElseThrow(() -> new NoSuchElementException("No section found with section ID: " + sectionId));
+            seatInventory.enableFor(section);
+            redirectAttrs.addFlashAttribute("sectionSuccessMessage", "Section " + sectionId + " now uses a seat inventory");
+        } catch (NoSuchElementException | IllegalArgumentException e) {
+            redirectAttrs.addFlashAttribute("sectionExceptionMessage", e.getMessage());
+        }
+        return "redirect:/sections";
+    }
+
+    /**
+     * Drops the cached subjects, prerequisites & rooms, after they were changed other than through this app.
+     */
+    @PostMapping("referenceData/evict")
+    public String evictReferenceData(RedirectAttributes redirectAttrs) {
+        referenceDataCache.evictAll();
+        redirectAttrs.addFlashAttribute("sectionSuccessMessage", "Subjects, prerequisites & rooms will be reloaded");
+        return "redirect:/sections";
+    }
+
+    /**
+     * Returns the hits, misses & puts of the reference data cache, by cache region.
+     */
+    @GetMapping(value = "referenceData/statistics", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Map<String, ReferenceDataCache.RegionStatistics> showReferenceDataStatistics() {
+        return referenceDataCache.getStatistics();
+    }
+
+    /**
+     * Returns the attempts, conflicts & given up enlistments of each section, the most contended sections first.
+     */
+    @GetMapping(value = "retries", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Map<String, SectionRetries.Statistics> showRetryStatistics() {
+        return sectionRetries.getStatistics();
+    }
+
     /**
      * Retrieves a Subject by its ID.
      *
@@ -92,8 +180,8 @@ class SectionsController {
      * @return the Schedule object
      */
     private Schedule createSchedule(Days days, String start, String end) {
-        Period period = new Period(LocalTime.parse(start), LocalTime.parse(end));
-        return new Schedule(days, period);
+        Period period = Period.of(LocalTime.parse(start), LocalTime.parse(end));
+        return Schedule.of(days, period);
     }
 
     /**
@@ -108,6 +196,18 @@ class SectionsController {
                 .orElseThrow(() -> new NoSuchElementException("No room found with room name: " + roomName));
     }
 
+    /**
+     * Retrieves a member of the faculty by their faculty number.
+     *
+     * @param facultyNumber the faculty number of the instructor
+     * @return the Faculty object
+     * @throws NoSuchElementException if no faculty is found with the given number
+     */
+    private Faculty getFacultyByNumber(int facultyNumber) {
+        return facultyRepo.findById(facultyNumber)
+                .orElseThrow(() -> new NoSuchElementException("No faculty found with faculty number: " + facultyNumber));
+    }
+
     @ExceptionHandler(EnlistmentException.class)
     public String handleException(RedirectAttributes redirectAttrs, EnlistmentException e) {
         redirectAttrs.addFlashAttribute("sectionExceptionMessage", e.getMessage());
@@ -126,10 +226,30 @@ class SectionsController {
         this.roomRepo = roomRepo;
     }
 
+    void setFacultyRepo(FacultyRepository facultyRepo) {
+        this.facultyRepo = facultyRepo;
+    }
+
     void setAdminRepo(AdminRepository adminRepo) {
         this.adminRepo = adminRepo;
     }
 
+    void setSeatInventory(SeatInventory seatInventory) {
+        this.seatInventory = seatInventory;
+    }
+
+    void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    void setReferenceDataCache(ReferenceDataCache referenceDataCache) {
+        this.referenceDataCache = referenceDataCache;
+    }
+
+    void setSectionRetries(SectionRetries sectionRetries) {
+        this.sectionRetries = sectionRetries;
+    }
+
 
 
 }
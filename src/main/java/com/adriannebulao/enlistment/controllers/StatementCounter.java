@@ -0,0 +1,77 @@
+package com.adriannebulao.enlistment.controllers;
+
+import jakarta.servlet.http.*;
+import org.hibernate.cfg.*;
+import org.hibernate.resource.jdbc.spi.*;
+import org.slf4j.*;
+import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.boot.autoconfigure.orm.jpa.*;
+import org.springframework.stereotype.*;
+import org.springframework.web.servlet.*;
+import org.springframework.web.servlet.config.annotation.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Counts the SQL statements run while handling each request, view rendering included, and logs the count
+ * per endpoint, so that every endpoint can be held to a fixed number of queries however many sections,
+ * students or subjects there are. Turned on w/ {@code enlistment.statement-count.enabled=true}.
+ * <p>
+ * Only statements run on the request thread are counted, not those of a section writer it waits for.
+ */
+@Component
+@ConditionalOnProperty(name = "enlistment.statement-count.enabled", havingValue = "true")
+class StatementCounter implements StatementInspector, HandlerInterceptor, HibernatePropertiesCustomizer, WebMvcConfigurer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatementCounter.class);
+
+    private final ThreadLocal<int[]> statements = ThreadLocal.withInitial(() -> new int[1]);
+    private final ConcurrentMap<String, Integer> lastCounts = new ConcurrentHashMap<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        statements.get()[0]++;
+        return sql;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        statements.get()[0] = 0;
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int count = statements.get()[0];
+        statements.remove();
+        String endpoint = endpoint(request);
+        lastCounts.put(endpoint, count);
+        LOGGER.info("{} ran {} SQL statements", endpoint, count);
+    }
+
+    /**
+     * The number of statements the endpoint ran the last time it was requested
+     *
+     * @param endpoint the method & mapped path, e.g. {@code GET /enlist}
+     */
+    OptionalInt getLastCount(String endpoint) {
+        Integer count = lastCounts.get(endpoint);
+        return count == null ? OptionalInt.empty() : OptionalInt.of(count);
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,47 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.stereotype.*;
+
+import jakarta.persistence.*;
+
+/**
+ * Coordinates seat changes across app instances with a transaction-scoped PostgreSQL advisory lock
+ * keyed by section. The lock is taken right before the section's count is changed and is released by
+ * the database when the enlistment commits, so the next instance to take it reads the committed count.
+ */
+@Component
+@Qualifier(SeatAllocator.SEAT_COUNTER)
+@ConditionalOnProperty(name = "enlistment.seat-allocation", havingValue = "advisory-lock")
+class AdvisoryLockSeatAllocator implements SeatAllocator {
+
+    private final SectionRepository sectionRepo;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    AdvisoryLockSeatAllocator(SectionRepository sectionRepo) {
+        this.sectionRepo = sectionRepo;
+    }
+
+    @Override
+    public boolean tryReserve(Student student, Section section) {
+        lockAndRefresh(section);
+        return section.tryIncrementNumberOfStudents();
+    }
+
+    @Override
+    public boolean release(Student student, Section section) {
+        lockAndRefresh(section);
+        return section.tryDecrementNumberOfStudents();
+    }
+
+    private void lockAndRefresh(Section section) {
+        sectionRepo.lockForSeatChange(section.getSectionId());
+        entityManager.refresh(section); // another instance may have changed the count before we got the lock
+    }
+
+    void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+}
@@ -0,0 +1,54 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.stereotype.*;
+
+import jakarta.persistence.*;
+
+/**
+ * Reserves a seat with a single conditional update of the section's row, which only increments
+ * the count while it is below the room's capacity. The row lock is held by the database until the
+ * enlistment commits, so concurrent enlistments queue there instead of failing on the section's version.
+ * <p>
+ * The update bypasses the persistence context, so a section whose count it changed is refreshed from its row,
+ * which this transaction holds locked by then: left as loaded, the managed section would keep the old count &
+ * version, to be shown as is, or to fail on its version if it were ever flushed.
+ */
+@Component
+@Qualifier(SeatAllocator.SEAT_COUNTER)
+@ConditionalOnProperty(name = "enlistment.seat-allocation", havingValue = "conditional-update", matchIfMissing = true)
+class ConditionalUpdateSeatAllocator implements SeatAllocator {
+
+    private final SectionRepository sectionRepo;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    ConditionalUpdateSeatAllocator(SectionRepository sectionRepo) {
+        this.sectionRepo = sectionRepo;
+    }
+
+    @Override
+    public boolean tryReserve(Student student, Section section) {
+        return refreshIfUpdated(section, sectionRepo.reserveSeat(section.getSectionId()));
+    }
+
+    @Override
+    public boolean release(Student student, Section section) {
+        return refreshIfUpdated(section, sectionRepo.releaseSeat(section.getSectionId()));
+    }
+
+    private boolean refreshIfUpdated(Section section, int rowsUpdated) {
+        if (rowsUpdated == 0) {
+            return false;
+        }
+        if (entityManager.contains(section)) {
+            entityManager.refresh(section);
+        }
+        return true;
+    }
+
+    void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+}
@@ -0,0 +1,28 @@
+package com.adriannebulao.enlistment.domain;
+
+/**
+ * Whether a student can enlist in a section, or the first reason they can't, see {@link Student#checkEligibility}.
+ * The reasons are listed in the order they are checked.
+ */
+public enum Eligibility {
+    ENLISTABLE("Enlistable"),
+    ALREADY_ENLISTED("Already enlisted"),
+    SCHEDULE_CONFLICT("Schedule conflict"),
+    SAME_SUBJECT("Same subject as an enlisted section"),
+    PREREQ_MISSING("Missing prerequisites"),
+    FULL("Full");
+
+    private final String description;
+
+    Eligibility(String description) {
+        this.description = description;
+    }
+
+    public boolean isEnlistable() {
+        return this == ENLISTABLE;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,154 @@
+package com.adriannebulao.enlistment.domain;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+import static org.apache.commons.lang3.Validate.*;
+
+/**
+ * JVM-wide locks for enlistment, keyed by section ID and by student number. Entities are loaded anew
+ * in every persistence context, so a lock held by the entity instance itself would not be shared by
+ * concurrent requests; these locks are looked up by key instead.
+ * <p>
+ * Keys are hashed onto a fixed number of lock stripes so memory stays bounded no matter how many
+ * sections and students there are. All the stripes of one operation are acquired in ascending order,
+ * so operations spanning several sections cannot deadlock each other.
+ * <p>
+ * The stripes are {@link ReentrantLock}s rather than {@code synchronized} blocks: a seat allocator may run
+ * JDBC while they are held, and a virtual thread blocked inside {@code synchronized} would pin its carrier.
+ * <p>
+ * This only coordinates threads of a single app instance.
+ */
+public final class EnlistmentLocks {
+
+    static final int DEFAULT_STRIPES = 1024;
+    private static final int SECTION_KEY = 1;
+    private static final int STUDENT_KEY = 2;
+    private static final EnlistmentLocks SHARED = new EnlistmentLocks(DEFAULT_STRIPES);
+
+    private final ReentrantLock[] stripes;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    EnlistmentLocks(int numberOfStripes) {
+        isTrue(numberOfStripes > 0, "numberOfStripes must be greater than zero, was: " + numberOfStripes);
+        stripes = new ReentrantLock[numberOfStripes];
+        Arrays.setAll(stripes, i -> new ReentrantLock());
+    }
+
+    /** The locks shared by all enlistments in this app instance **/
+    public static EnlistmentLocks shared() {
+        return SHARED;
+    }
+
+    /**
+     * Locks the given student and sections, blocking until all their stripes are held.
+     * Close the returned {@link Held} to release them, preferably with try-with-resources.
+     */
+    Held lock(Student student, Collection<Section> sections) {
+        notNull(student, "student can't be null");
+        notNull(sections, "sections can't be null");
+        int[] indices = new int[sections.size() + 1];
+        int count = 0;
+        indices[count++] = stripeOf(STUDENT_KEY, Integer.hashCode(student.getStudentNumber()));
+        for (Section section : sections) {
+            indices[count++] = stripeOf(SECTION_KEY, section.getSectionId().hashCode());
+        }
+        return acquire(indices);
+    }
+
+    Held lock(Student student, Section section) {
+        return lock(student, List.of(section));
+    }
+
+    /**
+     * Locks a section & the students of a batch of actions on it, for a caller that applies the whole batch in
+     * one transaction: held until the transaction ends, the actions of the batch re-acquire these stripes
+     * without waiting, so the caller never waits for a stripe while holding row locks it has yet to commit.
+     */
+    public Held lock(String sectionId, Collection<Integer> studentNumbers) {
+        notNull(sectionId, "sectionId can't be null");
+        notNull(studentNumbers, "studentNumbers can't be null");
+        int[] indices = new int[studentNumbers.size() + 1];
+        int count = 0;
+        indices[count++] = stripeOf(SECTION_KEY, sectionId.hashCode());
+        for (int studentNumber : studentNumbers) {
+            indices[count++] = stripeOf(STUDENT_KEY, Integer.hashCode(studentNumber));
+        }
+        return acquire(indices);
+    }
+
+    private int stripeOf(int keyType, int keyHash) {
+        int hash = 31 * keyType + keyHash;
+        hash ^= hash >>> 16; // spread the high bits, as HashMap does
+        return Math.floorMod(hash, stripes.length);
+    }
+
+    private Held acquire(int[] indices) {
+        Arrays.sort(indices); // the global order of acquisition
+        int distinct = 0;
+        for (int index : indices) {
+            if (distinct == 0 || indices[distinct - 1] != index) {
+                indices[distinct++] = index;
+            }
+        }
+        long waitNanos = 0;
+        for (int i = 0; i < distinct; i++) {
+            ReentrantLock stripe = stripes[indices[i]];
+            if (!stripe.tryLock()) {
+                long start = System.nanoTime();
+                stripe.lock();
+                waitNanos += System.nanoTime() - start;
+            }
+        }
+        acquisitions.increment();
+        if (waitNanos > 0) {
+            contendedAcquisitions.increment();
+            totalWaitNanos.add(waitNanos);
+            maxWaitNanos.accumulate(waitNanos);
+        }
+        return new Held(indices, distinct);
+    }
+
+    /** Number of times locks were acquired **/
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    /** Number of times locks were acquired only after waiting for another thread to release them **/
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions.sum();
+    }
+
+    /** Total time spent waiting to acquire locks **/
+    public Duration getTotalWaitTime() {
+        return Duration.ofNanos(totalWaitNanos.sum());
+    }
+
+    /** Longest time spent waiting to acquire the locks of a single operation **/
+    public Duration getMaxWaitTime() {
+        return Duration.ofNanos(maxWaitNanos.get());
+    }
+
+    /** The stripes held by one operation, released in the reverse order they were acquired **/
+    public final class Held implements AutoCloseable {
+        private final int[] indices;
+        private final int count;
+
+        private Held(int[] indices, int count) {
+            this.indices = indices;
+            this.count = count;
+        }
+
+        @Override
+        public void close() {
+            for (int i = count - 1; i >= 0; i--) {
+                stripes[indices[i]].unlock();
+            }
+        }
+    }
+}
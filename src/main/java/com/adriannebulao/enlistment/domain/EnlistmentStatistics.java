@@ -0,0 +1,79 @@
+package com.adriannebulao.enlistment.domain;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import static org.apache.commons.lang3.Validate.*;
+
+/**
+ * Time spent in each phase of enlisting & cancelling, and the number of enlistments refused for each
+ * reason, since the app started. Like the statistics of {@link EnlistmentLocks}, these are summed up in
+ * {@link LongAdder}s, so that recording a phase costs a read of the clock and no contention. The time spent
+ * waiting for locks is kept by {@link EnlistmentLocks} itself.
+ */
+public final class EnlistmentStatistics {
+
+    /** The phases of enlisting & cancelling that are timed **/
+    public enum Phase {
+        /** Checking the section against the enlisted sections' schedules & subjects **/
+        CONFLICT_CHECK,
+        /** Checking the student has taken the section's prerequisites **/
+        PREREQ_CHECK,
+        /** Taking a seat of the section, see {@link SeatAllocator#reserve} **/
+        SEAT_RESERVE,
+        /** Giving back a seat of the section, see {@link SeatAllocator#release} **/
+        SEAT_RELEASE,
+        /** Flushing & committing the enlistment, recorded by whoever runs its transaction **/
+        FLUSH
+    }
+
+    private static final EnlistmentStatistics SHARED = new EnlistmentStatistics();
+
+    private final LongAdder[] counts = new LongAdder[Phase.values().length];
+    private final LongAdder[] totalNanos = new LongAdder[Phase.values().length];
+    private final LongAdder[] refusals = new LongAdder[Eligibility.values().length];
+
+    EnlistmentStatistics() {
+        Arrays.setAll(counts, i -> new LongAdder());
+        Arrays.setAll(totalNanos, i -> new LongAdder());
+        Arrays.setAll(refusals, i -> new LongAdder());
+    }
+
+    /** The statistics of all enlistments in this app instance **/
+    public static EnlistmentStatistics shared() {
+        return SHARED;
+    }
+
+    /**
+     * Records a phase that started at the given {@link System#nanoTime()} & ended now.
+     *
+     * @return now, i.e. the start of the phase that follows
+     */
+    public long record(Phase phase, long startNanos) {
+        long now = System.nanoTime();
+        counts[phase.ordinal()].increment();
+        totalNanos[phase.ordinal()].add(now - startNanos);
+        return now;
+    }
+
+    void refused(Eligibility reason) {
+        isTrue(!reason.isEnlistable(), "an enlistable section isn't refused");
+        refusals[reason.ordinal()].increment();
+    }
+
+    /** Number of times the phase was recorded **/
+    public long getCount(Phase phase) {
+        return counts[phase.ordinal()].sum();
+    }
+
+    /** Total time spent in the phase **/
+    public Duration getTotalTime(Phase phase) {
+        return Duration.ofNanos(totalNanos[phase.ordinal()].sum());
+    }
+
+    /** Number of enlistments refused for the given reason **/
+    public long getRefusals(Eligibility reason) {
+        return refusals[reason.ordinal()].sum();
+    }
+}
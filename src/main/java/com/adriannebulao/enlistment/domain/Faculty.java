@@ -0,0 +1,95 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.hibernate.annotations.*;
+
+import jakarta.persistence.*;
+import jakarta.persistence.Entity;
+
+import static org.apache.commons.lang3.Validate.*;
+
+/**
+ * A member of the faculty, the instructor of sections. Like {@link Room}, an instructor keeps the slots of the
+ * week taken by their sections, so a new section is checked against one bitmask rather than against each of
+ * the instructor's sections, however many there are.
+ */
+@Entity
+public class Faculty {
+    @Id
+    private final int facultyNumber;
+    private final String firstname;
+    private final String lastname;
+
+    /** Slots of the week taken by this instructor's sections, see {@link Schedule#slotMask()} **/
+    @ColumnDefault("0")
+    private long occupancy = 0;
+
+    @Version
+    @ColumnDefault("0")
+    private int version = 0;
+
+    Faculty(int facultyNumber, String firstname, String lastname) {
+        isTrue(facultyNumber >= 0, "facultyNumber can't be negative, was: " + facultyNumber);
+        notBlank(firstname);
+        notBlank(lastname);
+        this.facultyNumber = facultyNumber;
+        this.firstname = firstname;
+        this.lastname = lastname;
+    }
+
+    void addSection(Section newSection) {
+        notNull(newSection, "newSection can't be null");
+        checkFreeAt(newSection.getSchedule());
+        occupancy |= newSection.slotMask();
+    }
+
+    void checkFreeAt(Schedule schedule) {
+        if (!isFreeAt(schedule)) {
+            throw new ScheduleConflictException("Instructor " + firstname + " " + lastname
+                    + " (faculty #" + facultyNumber + ") already teaches at " + schedule);
+        }
+    }
+
+    public boolean isFreeAt(Schedule schedule) {
+        notNull(schedule, "schedule can't be null");
+        return (occupancy & schedule.slotMask()) == 0;
+    }
+
+    public int getFacultyNumber() {
+        return facultyNumber;
+    }
+
+    public String getFirstname() {
+        return firstname;
+    }
+
+    public String getLastname() {
+        return lastname;
+    }
+
+    @Override
+    public String toString() {
+        return "Faculty#" + facultyNumber + " " + firstname + " " + lastname;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Faculty faculty = (Faculty) o;
+
+        return facultyNumber == faculty.facultyNumber;
+    }
+
+    @Override
+    public int hashCode() {
+        return facultyNumber;
+    }
+
+    // For JPA only! Do not call!
+    private Faculty() {
+        facultyNumber = -1;
+        firstname = null;
+        lastname = null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.*;
+import org.springframework.stereotype.*;
+
+import java.util.*;
+
+@Repository
+public interface FacultyRepository extends JpaRepository<Faculty, Integer> {
+
+    @Query(value = "SELECT * FROM faculty WHERE (occupancy & :slotMask) = 0 ORDER BY faculty_number", nativeQuery = true)
+    List<Faculty> findAllWithFreeSlots(@Param("slotMask") long slotMask);
+
+    /** Returns the instructors who are free for the whole of the given schedule **/
+    default List<Faculty> findAllFreeAt(Schedule schedule) {
+        return findAllWithFreeSlots(schedule.slotMask());
+    }
+}
@@ -0,0 +1,27 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.stereotype.*;
+
+/**
+ * Counts seats on the {@link Section} instance itself. {@link Student} calls it while holding the
+ * section's {@link EnlistmentLocks}, so it is only safe within a single app instance, and only while
+ * the section's row is not also updated elsewhere; other instances surface as optimistic lock failures
+ * on the section's version.
+ */
+@Component
+@Qualifier(SeatAllocator.SEAT_COUNTER)
+@ConditionalOnProperty(name = "enlistment.seat-allocation", havingValue = "in-memory")
+class InMemorySeatAllocator implements SeatAllocator {
+
+    @Override
+    public boolean tryReserve(Student student, Section section) {
+        return section.tryIncrementNumberOfStudents();
+    }
+
+    @Override
+    public boolean release(Student student, Section section) {
+        return section.tryDecrementNumberOfStudents();
+    }
+}
@@ -1,69 +1,128 @@
 package com.adriannebulao.enlistment.domain;
 
-import jakarta.persistence.*;
 import java.time.*;
 
 import static org.apache.commons.lang3.Validate.*;
 
-@Embeddable
-public class Period {
+/**
+ * A period of half-hour slots between 8:30am and 5:30pm. There are only {@link #COUNT} of them, so each is
+ * made once, when the class is loaded, and {@link #of} returns that instance: periods are equal exactly when
+ * they are the same instance, and are numbered densely by {@link #ordinal()}, in order of start then end.
+ */
+public final class Period {
+
+    private static final LocalTime EARLIEST_START = LocalTime.of(8, 30);
+    private static final LocalTime LATEST_END = LocalTime.of(17, 30);
+    private static final int SLOT_MINUTES = 30;
+    /** Number of half-hour slots between 8:30am and 5:30pm **/
+    static final int SLOTS_PER_DAY = 18;
+    /** Number of valid periods, i.e. of pairs of a start slot & a later end slot **/
+    static final int COUNT = SLOTS_PER_DAY * (SLOTS_PER_DAY + 1) / 2;
+
+    private static final Period[] BY_ORDINAL = new Period[COUNT];
+    /** Indexed by start slot then end slot, the end slot being one past the last slot covered **/
+    private static final Period[][] BY_SLOTS = new Period[SLOTS_PER_DAY][SLOTS_PER_DAY + 1];
+
+    static {
+        int ordinal = 0;
+        for (int start = 0; start < SLOTS_PER_DAY; start++) {
+            for (int end = start + 1; end <= SLOTS_PER_DAY; end++) {
+                Period period = new Period(ordinal, start, end);
+                BY_ORDINAL[ordinal++] = period;
+                BY_SLOTS[start][end] = period;
+            }
+        }
+    }
 
     private final LocalTime startTime;
     private final LocalTime endTime;
+    private final int ordinal;
+    /** Half-hour slots covered by this period, bit 0 being 8:30am - 9:00am **/
+    private final int slotMask;
+
+    private Period(int ordinal, int startSlot, int endSlot) {
+        this.startTime = EARLIEST_START.plusMinutes((long) startSlot * SLOT_MINUTES);
+        this.endTime = EARLIEST_START.plusMinutes((long) endSlot * SLOT_MINUTES);
+        this.ordinal = ordinal;
+        this.slotMask = ((1 << (endSlot - startSlot)) - 1) << startSlot;
+    }
 
-    public Period(LocalTime startTime, LocalTime endTime) {
+    /** The one period from {@code startTime} to {@code endTime} **/
+    public static Period of(LocalTime startTime, LocalTime endTime) {
         notNull(startTime, "startTime can't be null");
         notNull(endTime, "endTime can't be null");
         isTrue(startTime.isBefore(endTime),
                 "startTime must be before endTime; startTime: " + startTime + " endTime: " + endTime);
-        isTrue(!startTime.isBefore(LocalTime.of(8, 30)), "startTime can't be before 8:30am, was: " + startTime);
-        isTrue(!endTime.isAfter(LocalTime.of(17, 30)), "endTime can't be after 5:30pm, was " + endTime);
+        isTrue(!startTime.isBefore(EARLIEST_START), "startTime can't be before 8:30am, was: " + startTime);
+        isTrue(!endTime.isAfter(LATEST_END), "endTime can't be after 5:30pm, was " + endTime);
         checkIf30MinIncrement(startTime);
         checkIf30MinIncrement(endTime);
-        this.startTime = startTime;
-        this.endTime = endTime;
+        return BY_SLOTS[slotsBetween(EARLIEST_START, startTime)][slotsBetween(EARLIEST_START, endTime)];
     }
 
-    private void checkIf30MinIncrement(LocalTime time) {
+    /** The period numbered {@code ordinal}, see {@link #ordinal()} **/
+    static Period ofOrdinal(int ordinal) {
+        isTrue(ordinal >= 0 && ordinal < COUNT, "ordinal must be from 0 to %d, was: %d", COUNT - 1, ordinal);
+        return BY_ORDINAL[ordinal];
+    }
+
+    private static void checkIf30MinIncrement(LocalTime time) {
         notNull(time, "time can't be null");
         final int minute = time.getMinute();
-        if (minute != 0 && minute != 30) {
+        if ((minute != 0 && minute != 30) || time.getSecond() != 0 || time.getNano() != 0) {
             throw new InvalidTimeException("should end with ':00' or ':30', was: " + time);
         }
     }
 
+    /** Whether the periods share a half-hour slot; allocates nothing, unlike {@link #checkOverlap} when they do **/
+    boolean overlaps(Period other) {
+        return (this.slotMask & other.slotMask) != 0;
+    }
+
     void checkOverlap(Period other) {
-        if (this.startTime.isBefore(other.endTime) && this.endTime.isAfter(other.startTime)) {
+        if (overlaps(other)) {
             throw new ScheduleConflictException("Period overlap between this: " + this + " & other: " + other);
         }
     }
 
+    /**
+     * Returns the half-hour slots this period occupies as a bitmask of {@link #SLOTS_PER_DAY} bits,
+     * so two periods overlap exactly when their masks share a bit.
+     */
+    int slotMask() {
+        return slotMask;
+    }
+
+    /** Dense number of this period, from 0 to {@link #COUNT} - 1 **/
+    int ordinal() {
+        return ordinal;
+    }
+
+    private static int slotsBetween(LocalTime from, LocalTime to) {
+        return (int) (Duration.between(from, to).toMinutes() / SLOT_MINUTES);
+    }
+
+    LocalTime getStartTime() {
+        return startTime;
+    }
+
+    LocalTime getEndTime() {
+        return endTime;
+    }
+
     @Override
     public String toString() {
         return startTime + " - " + endTime;
     }
 
+    /** Periods are interned, see {@link #of} **/
     @Override
     public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-
-        Period period = (Period) o;
-
-        if (startTime != null ? !startTime.equals(period.startTime) : period.startTime != null) return false;
-        return endTime != null ? endTime.equals(period.endTime) : period.endTime == null;
+        return this == o;
     }
 
     @Override
     public int hashCode() {
-        int result = startTime != null ? startTime.hashCode() : 0;
-        result = 31 * result + (endTime != null ? endTime.hashCode() : 0);
-        return result;
-    }
-
-    // For JPA only! Do not call!
-    private Period() {
-        startTime = null;
-        endTime = null;
+        return ordinal;
     }
 }
@@ -0,0 +1,50 @@
+package com.adriannebulao.enlistment.domain;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.*;
+import org.hibernate.event.service.spi.*;
+import org.hibernate.event.spi.*;
+import org.springframework.stereotype.*;
+
+/**
+ * Has the prerequisite closures shared by the subjects loaded from the database recomputed whenever prerequisites
+ * are written through this app, in whichever persistence context, see {@link Subject#graphChanged()}: once as the
+ * change is flushed, and again once its transaction ends, so a closure computed meanwhile from what was still
+ * committed isn't kept. Prerequisites changed in any other way, e.g. in the database directly or through another
+ * app instance, are picked up once the reference data is evicted, see {@link ReferenceDataCache#evictAll()}.
+ */
+@Component
+class PrerequisiteChanges implements PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+
+    PrerequisiteChanges(EntityManagerFactory entityManagerFactory) {
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        listeners.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        listeners.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        changed(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        changed(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        changed(event);
+    }
+
+    /** The only collection of subjects is their prerequisites **/
+    private static void changed(AbstractCollectionEvent event) {
+        if (event.getAffectedOwnerOrNull() instanceof Subject) {
+            Subject.graphChanged();
+            event.getSession().getActionQueue().registerProcess((success, session) -> Subject.graphChanged());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.adriannebulao.enlistment.domain;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.*;
+import org.springframework.stereotype.*;
+
+import java.util.*;
+
+/**
+ * The subjects, their prerequisites and the rooms, kept in the in-process second-level cache since they hardly
+ * change during an enlistment period. Changes made through this app update the cache as they commit; after
+ * changing reference data in any other way, e.g. in the database directly or through another app instance,
+ * an admin evicts it w/ {@link #evictAll()}.
+ */
+@Component
+public class ReferenceDataCache {
+
+    /** Name of the statistics of the cached query results, e.g. of all subjects **/
+    public static final String QUERY_RESULTS = "query-results";
+
+    private final SessionFactory sessionFactory;
+    private final SectionCatalog sectionCatalog;
+
+    ReferenceDataCache(EntityManagerFactory entityManagerFactory, SectionCatalog sectionCatalog) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.sectionCatalog = sectionCatalog;
+    }
+
+    /** Hits, misses & puts of a cache region since the app started **/
+    public record RegionStatistics(long hits, long misses, long puts) {
+    }
+
+    /**
+     * Evicts all the reference data, the prerequisite closures computed from it, and the section catalog whose
+     * summaries were made from it.
+     */
+    public void evictAll() {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(Subject.class);
+        cache.evictCollectionData(Subject.class.getName() + ".prerequisites");
+        cache.evictEntityData(Room.class);
+        cache.evictQueryRegions();
+        Subject.graphChanged();
+        sectionCatalog.invalidate();
+    }
+
+    /** The statistics of every cache region by region name, and those of the cached query results **/
+    public Map<String, RegionStatistics> getStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, RegionStatistics> regions = new TreeMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            regions.put(regionName, new RegionStatistics(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+        }
+        regions.put(QUERY_RESULTS, new RegionStatistics(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        return regions;
+    }
+}
@@ -1,19 +1,30 @@
 package com.adriannebulao.enlistment.domain;
 
-import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.*;
 
+import jakarta.persistence.*;
+import jakarta.persistence.Entity;
 import java.util.*;
 
 import static org.apache.commons.lang3.StringUtils.*;
 import static org.apache.commons.lang3.Validate.*;
 
+/** Reference data, kept in the second-level cache, see {@link ReferenceDataCache} **/
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Room {
     @Id
     private final String name;
     private final int capacity;
-    @OneToMany
-    private final Collection<Section> sections = new HashSet<>();
+
+    /** Slots of the week taken by this room's sections, see {@link Schedule#slotMask()} **/
+    @ColumnDefault("0")
+    private long occupancy = 0;
+
+    @Version
+    @ColumnDefault("0")
+    private int version = 0;
 
     Room(String name, int capacity, Collection<Section> sections) {
         notBlank(name);
@@ -22,25 +33,36 @@ public class Room {
         notNull(sections, "sections can't be null");
         this.name = name;
         this.capacity = capacity;
-        this.sections.addAll(sections);
-        this.sections.removeIf(Objects::isNull);
+        sections.stream().filter(Objects::nonNull).forEach(this::addSection);
     }
 
     Room(String roomName, int capacity) {
         this(roomName, capacity, Collections.emptyList());
     }
 
+    /** Whether there is a seat left at the given occupancy; allocates nothing, unlike {@link #checkIfAtOrOverCapacity} **/
+    boolean hasSeatFor(int occupancy) {
+        isTrue(occupancy >= 0, "occupancy must be non-negative, was: %d", occupancy);
+        return occupancy < capacity;
+    }
+
     void checkIfAtOrOverCapacity(int occupancy) {
-        isTrue(occupancy >= 0, "occupancy must be non-negative, was: " + occupancy);
-        if (occupancy >= capacity) {
+        if (!hasSeatFor(occupancy)) {
             throw new CapacityException("at or over capacity of " + capacity + "  at occupancy of " + occupancy);
         }
     }
 
     void addSection(Section newSection) {
         notNull(newSection, "newSection can't be null");
-        sections.forEach(currSection -> currSection.checkForScheduleConflict(newSection));
-        sections.add(newSection);
+        if (!isFreeAt(newSection.getSchedule())) {
+            throw new ScheduleConflictException("Room " + name + " is already occupied at " + newSection.getSchedule());
+        }
+        occupancy |= newSection.slotMask();
+    }
+
+    public boolean isFreeAt(Schedule schedule) {
+        notNull(schedule, "schedule can't be null");
+        return (occupancy & schedule.slotMask()) == 0;
     }
 
     public String getName() {
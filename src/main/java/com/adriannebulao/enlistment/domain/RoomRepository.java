@@ -1,9 +1,26 @@
 package com.adriannebulao.enlistment.domain;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.*;
 import org.springframework.stereotype.*;
 
+import java.util.*;
+
 @Repository
 public interface RoomRepository extends JpaRepository<Room, String> {
 
+    /** All the rooms, the results cached until a room is changed, e.g. by a new section taking up its slots **/
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Room> findAll();
+
+    @Query(value = "SELECT * FROM room WHERE (occupancy & :slotMask) = 0 ORDER BY name", nativeQuery = true)
+    List<Room> findAllWithFreeSlots(@Param("slotMask") long slotMask);
+
+    /** Returns the rooms that are free for the whole of the given schedule **/
+    default List<Room> findAllFreeAt(Schedule schedule) {
+        return findAllWithFreeSlots(schedule.slotMask());
+    }
 }
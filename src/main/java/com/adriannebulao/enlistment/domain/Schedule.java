@@ -1,20 +1,56 @@
 package com.adriannebulao.enlistment.domain;
 
-import jakarta.persistence.*;
+import static org.apache.commons.lang3.Validate.*;
 
-import static org.apache.commons.lang3.Validate.notNull;
+/**
+ * The days & period a section meets. Like {@link Period}, each of the {@link #COUNT} schedules is made once
+ * and {@link #of} returns that instance, so schedules are equal exactly when they are the same instance.
+ * Sections map their {@code days}, {@code start_time} & {@code end_time} columns onto it w/ {@link ScheduleType}.
+ */
+public final class Schedule {
+
+    /** Number of schedules, i.e. of pairs of {@link Days} & {@link Period} **/
+    static final int COUNT = Days.values().length * Period.COUNT;
+
+    private static final Schedule[] BY_ORDINAL = new Schedule[COUNT];
+
+    static {
+        for (Days days : Days.values()) {
+            for (int period = 0; period < Period.COUNT; period++) {
+                int ordinal = days.ordinal() * Period.COUNT + period;
+                BY_ORDINAL[ordinal] = new Schedule(days, Period.ofOrdinal(period), ordinal);
+            }
+        }
+    }
 
-@Embeddable
-public class Schedule {
     private final Days days;
-    @Embedded
     private final Period period;
+    private final int ordinal;
+    /** Slots of the week occupied by this schedule **/
+    private final long slotMask;
 
-    public Schedule(Days days, Period period) {
-        notNull(days, "days can't be null");
-        notNull(period, "period can't be null");
+    private Schedule(Days days, Period period, int ordinal) {
         this.days = days;
         this.period = period;
+        this.ordinal = ordinal;
+        this.slotMask = (long) period.slotMask() << (days.ordinal() * Period.SLOTS_PER_DAY);
+    }
+
+    /** The one schedule on {@code days} during {@code period} **/
+    public static Schedule of(Days days, Period period) {
+        notNull(days, "days can't be null");
+        notNull(period, "period can't be null");
+        return BY_ORDINAL[days.ordinal() * Period.COUNT + period.ordinal()];
+    }
+
+    /** The schedule numbered {@code ordinal}, see {@link #ordinal()} **/
+    static Schedule ofOrdinal(int ordinal) {
+        isTrue(ordinal >= 0 && ordinal < COUNT, "ordinal must be from 0 to %d, was: %d", COUNT - 1, ordinal);
+        return BY_ORDINAL[ordinal];
+    }
+
+    boolean overlaps(Schedule other) {
+        return (this.slotMask & other.slotMask) != 0;
     }
 
     void checkOverlap(Schedule other) {
@@ -23,35 +59,40 @@ public class Schedule {
         }
     }
 
+    /**
+     * Returns the slots of the week this schedule occupies: each {@link Days} pair owns its own
+     * run of {@link Period#SLOTS_PER_DAY} bits, so two schedules overlap exactly when their masks share a bit.
+     */
+    long slotMask() {
+        return slotMask;
+    }
+
+    /** Dense number of this schedule, from 0 to {@link #COUNT} - 1, by days then period **/
+    int ordinal() {
+        return ordinal;
+    }
+
+    Days getDays() {
+        return days;
+    }
+
+    Period getPeriod() {
+        return period;
+    }
+
     @Override
     public String toString() {
         return days + " " + period;
     }
 
+    /** Schedules are interned, see {@link #of} **/
     @Override
     public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-
-        Schedule schedule = (Schedule) o;
-
-        if (days != schedule.days) return false;
-        return period == schedule.period;
+        return this == o;
     }
 
     @Override
     public int hashCode() {
-        int result = days != null ? days.hashCode() : 0;
-        result = 31 * result + (period != null ? period.hashCode() : 0);
-        return result;
-    }
-
-    // For JPA only! Do not call!
-    private Schedule() {
-        days = null;
-        period = null;
+        return ordinal;
     }
 }
-
-
-
@@ -0,0 +1,90 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.hibernate.engine.spi.*;
+import org.hibernate.metamodel.spi.*;
+import org.hibernate.usertype.*;
+
+import java.io.*;
+import java.time.*;
+
+/**
+ * Maps a section's {@code days}, {@code start_time} & {@code end_time} columns onto the interned {@link Schedule},
+ * so loading sections makes no schedules or periods of their own. Queries still refer to the columns as the
+ * {@code days}, {@code startTime} & {@code endTime} of the schedule, see {@link Columns}.
+ */
+class ScheduleType implements CompositeUserType<Schedule> {
+
+    /** The columns as they are queried; Hibernate numbers them in alphabetical order **/
+    static class Columns {
+        private Days days;
+        private LocalTime endTime;
+        private LocalTime startTime;
+    }
+
+    private static final int DAYS = 0;
+    private static final int END_TIME = 1;
+    private static final int START_TIME = 2;
+
+    @Override
+    public Object getPropertyValue(Schedule schedule, int property) {
+        return switch (property) {
+            case DAYS -> schedule.getDays();
+            case END_TIME -> schedule.getPeriod().getEndTime();
+            case START_TIME -> schedule.getPeriod().getStartTime();
+            default -> throw new IllegalArgumentException("no schedule property " + property);
+        };
+    }
+
+    @Override
+    public Schedule instantiate(ValueAccess values, SessionFactoryImplementor sessionFactory) {
+        Days days = values.getValue(DAYS, Days.class);
+        LocalTime startTime = values.getValue(START_TIME, LocalTime.class);
+        LocalTime endTime = values.getValue(END_TIME, LocalTime.class);
+        return days == null ? null : Schedule.of(days, Period.of(startTime, endTime));
+    }
+
+    @Override
+    public Class<?> embeddable() {
+        return Columns.class;
+    }
+
+    @Override
+    public Class<Schedule> returnedClass() {
+        return Schedule.class;
+    }
+
+    @Override
+    public boolean equals(Schedule x, Schedule y) {
+        return x == y;
+    }
+
+    @Override
+    public int hashCode(Schedule schedule) {
+        return schedule.hashCode();
+    }
+
+    @Override
+    public Schedule deepCopy(Schedule schedule) {
+        return schedule; // immutable & interned
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public Serializable disassemble(Schedule schedule) {
+        return schedule == null ? null : schedule.ordinal();
+    }
+
+    @Override
+    public Schedule assemble(Serializable cached, Object owner) {
+        return cached == null ? null : Schedule.ofOrdinal((Integer) cached);
+    }
+
+    @Override
+    public Schedule replace(Schedule detached, Schedule managed, Object owner) {
+        return detached;
+    }
+}
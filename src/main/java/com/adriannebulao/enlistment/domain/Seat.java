@@ -0,0 +1,63 @@
+package com.adriannebulao.enlistment.domain;
+
+import jakarta.persistence.*;
+
+import static org.apache.commons.lang3.Validate.*;
+
+/**
+ * One seat of a section that uses a seat inventory, see {@link SeatInventory}. A seat is free while
+ * it has no studentNumber.
+ */
+@Entity
+@Table(indexes = @Index(columnList = "section_section_id, student_number"))
+public class Seat {
+    @Id
+    private final String seatId;
+    @ManyToOne
+    private final Section section;
+    private final int seatNumber;
+    private Integer studentNumber;
+
+    Seat(Section section, int seatNumber) {
+        notNull(section, "section can't be null");
+        isTrue(seatNumber > 0, "seatNumber must be greater than zero, was: " + seatNumber);
+        this.seatId = section.getSectionId() + "-" + seatNumber;
+        this.section = section;
+        this.seatNumber = seatNumber;
+    }
+
+    public String getSeatId() {
+        return seatId;
+    }
+
+    public int getSeatNumber() {
+        return seatNumber;
+    }
+
+    @Override
+    public String toString() {
+        return seatId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Seat seat = (Seat) o;
+
+        return seatId != null ? seatId.equals(seat.seatId) : seat.seatId == null;
+    }
+
+    @Override
+    public int hashCode() {
+        return seatId != null ? seatId.hashCode() : 0;
+    }
+
+    // For JPA only! Do not call!
+    private Seat() {
+        seatId = null;
+        section = null;
+        seatNumber = -1;
+    }
+}
@@ -0,0 +1,33 @@
+package com.adriannebulao.enlistment.domain;
+
+/**
+ * Claims and releases a seat in a section for a student, once the student's own enlistment rules
+ * (schedule, subject & prereqs) have passed. {@link #tryReserve} tells when no seat is left w/o throwing,
+ * so that the many refusals of a rush cost no exception; {@link #reserve} throws {@link CapacityException}.
+ * <p>
+ * The app counts seats with the strategy chosen by the {@code enlistment.seat-allocation} property:
+ * {@code conditional-update} (the default), {@code advisory-lock} or {@code in-memory}. Sections
+ * that have a {@link SeatInventory} claim seat rows instead.
+ */
+public interface SeatAllocator {
+
+    /** Qualifies the strategy counting seats on the section itself, as opposed to the {@link SeatInventory} **/
+    String SEAT_COUNTER = "seatCounter";
+
+    /** Keeps the count on the Section instance, see {@link InMemorySeatAllocator} **/
+    SeatAllocator IN_MEMORY = new InMemorySeatAllocator();
+
+    /** Claims a seat, or returns false w/o claiming any when none is left **/
+    boolean tryReserve(Student student, Section section);
+
+    /** Claims a seat, throwing {@link CapacityException} when none is left **/
+    default void reserve(Student student, Section section) {
+        if (!tryReserve(student, section)) {
+            throw new CapacityException("no seat left in section " + section +
+                    " w/ room capacity of " + section.getRoom().getCapacity());
+        }
+    }
+
+    /** Gives back the student's seat; returns false when there was none to give back **/
+    boolean release(Student student, Section section);
+}
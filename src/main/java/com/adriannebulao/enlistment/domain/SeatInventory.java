@@ -0,0 +1,74 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.context.*;
+import org.springframework.context.annotation.*;
+import org.springframework.stereotype.*;
+
+import static org.apache.commons.lang3.Validate.*;
+
+/**
+ * Allocates seats of hot sections from a materialized inventory of one {@link Seat} row per seat.
+ * Concurrent enlistments claim different rows with {@code FOR UPDATE SKIP LOCKED}, instead of all
+ * updating the section's single count. The count of such a section is derived from its claimed seats,
+ * see {@link #countStudents}: its {@code number_of_students} column is no longer kept up to date, since
+ * updating it would have every enlistment queue on the section's row again.
+ * <p>
+ * Sections without an inventory are left to the configured seat counter, see {@link SeatAllocator}.
+ * Either way, every seat taken or given back is published as a {@link SectionCatalog.SeatsChanged}.
+ */
+@Primary
+@Component
+public class SeatInventory implements SeatAllocator {
+
+    private final SeatRepository seatRepo;
+    private final SeatAllocator seatCounter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    SeatInventory(SeatRepository seatRepo, @Qualifier(SEAT_COUNTER) SeatAllocator seatCounter,
+                  ApplicationEventPublisher eventPublisher) {
+        this.seatRepo = seatRepo;
+        this.seatCounter = seatCounter;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public boolean tryReserve(Student student, Section section) {
+        boolean reserved = section.hasSeatInventory()
+                ? seatRepo.claimSeat(section.getSectionId(), student.getStudentNumber()) != 0
+                : seatCounter.tryReserve(student, section);
+        if (reserved) {
+            eventPublisher.publishEvent(new SectionCatalog.SeatsChanged(section.getSectionId(), 1));
+        }
+        return reserved;
+    }
+
+    @Override
+    public boolean release(Student student, Section section) {
+        boolean released = section.hasSeatInventory()
+                ? seatRepo.releaseSeat(section.getSectionId(), student.getStudentNumber()) != 0
+                : seatCounter.release(student, section);
+        if (released) {
+            eventPublisher.publishEvent(new SectionCatalog.SeatsChanged(section.getSectionId(), -1));
+        }
+        return released;
+    }
+
+    /**
+     * Switches the section over to a seat inventory sized from its room's capacity, giving a seat to each
+     * student already enlisted. Best done before enlistment opens, as enlistments into the section that
+     * are in flight while switching are counted the old way.
+     */
+    public void enableFor(Section section) {
+        notNull(section, "section can't be null");
+        section.enableSeatInventory();
+        seatRepo.createSeats(section.getSectionId(), section.getRoom().getCapacity());
+        seatRepo.claimSeatsOfEnlistedStudents(section.getSectionId());
+    }
+
+    /** The number of students in the section, whether counted on the section or claiming seats of its inventory **/
+    public int countStudents(Section section) {
+        notNull(section, "section can't be null");
+        return section.hasSeatInventory() ? seatRepo.countClaimedSeats(section.getSectionId()) : section.getNumberOfStudents();
+    }
+}
@@ -0,0 +1,49 @@
+package com.adriannebulao.enlistment.domain;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.*;
+import org.springframework.stereotype.*;
+
+@Repository
+public interface SeatRepository extends JpaRepository<Seat, String> {
+
+    /**
+     * Gives the student any free seat of the section, skipping seats being claimed by other transactions
+     * instead of waiting for them; returns the number of seats claimed, 0 or 1.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "seat"))
+    @Query(value = "UPDATE seat SET student_number = :studentNumber WHERE seat_id = (" +
+            "SELECT seat_id FROM seat WHERE section_section_id = :sectionId AND student_number IS NULL" +
+            " LIMIT 1 FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int claimSeat(@Param("sectionId") String sectionId, @Param("studentNumber") int studentNumber);
+
+    /** Frees the seat held by the student in the section; returns the number of seats freed, 0 or 1 **/
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "seat"))
+    @Query(value = "UPDATE seat SET student_number = NULL WHERE seat_id = (" +
+            "SELECT seat_id FROM seat WHERE section_section_id = :sectionId AND student_number = :studentNumber" +
+            " LIMIT 1 FOR UPDATE)", nativeQuery = true)
+    int releaseSeat(@Param("sectionId") String sectionId, @Param("studentNumber") int studentNumber);
+
+    @Query(value = "SELECT count(*) FROM seat WHERE section_section_id = :sectionId AND student_number IS NOT NULL",
+            nativeQuery = true)
+    int countClaimedSeats(@Param("sectionId") String sectionId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "seat"))
+    @Query(value = "INSERT INTO seat (seat_id, section_section_id, seat_number)" +
+            " SELECT :sectionId || '-' || n, :sectionId, n FROM generate_series(1, :capacity) AS n", nativeQuery = true)
+    int createSeats(@Param("sectionId") String sectionId, @Param("capacity") int capacity);
+
+    /** Gives a seat to each student already enlisted in the section **/
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "seat"))
+    @Query(value = "UPDATE seat SET student_number = enlisted.student_student_number FROM (" +
+            "SELECT student_student_number, row_number() OVER (ORDER BY student_student_number) AS seat_number" +
+            " FROM student_sections WHERE sections_section_id = :sectionId) AS enlisted" +
+            " WHERE seat.section_section_id = :sectionId AND seat.seat_number = enlisted.seat_number", nativeQuery = true)
+    int claimSeatsOfEnlistedStudents(@Param("sectionId") String sectionId);
+}
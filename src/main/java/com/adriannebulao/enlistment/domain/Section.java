@@ -5,7 +5,6 @@ import org.hibernate.annotations.*;
 import jakarta.persistence.*;
 import jakarta.persistence.Entity;
 import java.util.*;
-import java.util.concurrent.locks.*;
 
 import static org.apache.commons.lang3.StringUtils.*;
 import static org.apache.commons.lang3.Validate.*;
@@ -17,52 +16,76 @@ public class Section {
     @ManyToOne
     private final Subject subject;
     @Embedded
+    @CompositeType(ScheduleType.class)
     private final Schedule schedule;
     @ManyToOne
     private final Room room;
+    /** Only shown on the sections page, so not loaded along w/ every section a student enlists in **/
+    @ManyToOne(fetch = FetchType.LAZY)
+    private final Faculty instructor;
 
+    /** Left as it was once the section has a seat inventory; see {@link SeatInventory#countStudents} **/
     private int numberOfStudents = 0;
 
+    /** Whether seats are claimed from a {@link SeatInventory} instead of counted in numberOfStudents **/
+    @ColumnDefault("false")
+    private boolean seatInventory = false;
+
     @Version
     @ColumnDefault("0")
     private int version = 0;
 
-    @Transient
-    private final ReentrantLock lock = new ReentrantLock();
-
-    public Section(String sectionId, Subject subject, Schedule schedule, Room room) {
+    public Section(String sectionId, Subject subject, Schedule schedule, Room room, Faculty instructor) {
         notBlank(sectionId,
                 "sectionId can't be null, empty or whitespace ");
         notNull(subject, "subject can't be null");
+        notNull(schedule, "schedule can't be null");
         isTrue(isAlphanumeric(sectionId),
                 "sectionId must be alphanumeric, was: "
                         + sectionId);
         notNull(room, "room can't be null");
+        notNull(instructor, "instructor can't be null");
         this.sectionId = sectionId;
         this.subject = subject;
         this.schedule = schedule;
+        instructor.checkFreeAt(schedule); // before the room takes the slots, so that a conflict changes neither
         room.addSection(this);
         this.room = room;
+        instructor.addSection(this);
+        this.instructor = instructor;
     }
 
-    Section(String sectionId, Subject subject, Schedule schedule, Room room, int numberOfStudents) {
-        this(sectionId, subject, schedule, room);
+    Section(String sectionId, Subject subject, Schedule schedule, Room room, Faculty instructor, int numberOfStudents) {
+        this(sectionId, subject, schedule, room, instructor);
         isTrue(numberOfStudents >= 0,
                 "numberOfStudents must be non-negative, was: " + numberOfStudents);
         this.numberOfStudents = numberOfStudents;
     }
 
+    boolean hasSameSubject(Section other) {
+        return this.subject.equals(other.subject);
+    }
+
     void checkSameSubject(Section other) {
-        if (this.subject.equals(other.subject)) {
+        if (hasSameSubject(other)) {
             throw new SameSubjectException("This section " + this + " & other section " + other +
                     " have same subject of " + subject);
         }
     }
 
+    boolean hasScheduleConflict(Section other) {
+        return this.schedule.overlaps(other.schedule);
+    }
+
     void checkForScheduleConflict(Section other) {
         this.schedule.checkOverlap(other.schedule);
     }
 
+    /** Slots of the week occupied by this section, see {@link Schedule#slotMask()} **/
+    long slotMask() {
+        return schedule.slotMask();
+    }
+
     int getNumberOfStudents() {
         return numberOfStudents;
     }
@@ -72,24 +95,42 @@ public class Section {
         numberOfStudents++;
     }
 
-    void decrementNumberOfStudents() {
+    /** Takes a seat unless the room is full, w/o throwing, see {@link Room#hasSeatFor} **/
+    boolean tryIncrementNumberOfStudents() {
+        if (!room.hasSeatFor(numberOfStudents)) {
+            return false;
+        }
+        numberOfStudents++;
+        return true;
+    }
+
+    /** Gives back a seat, never going below zero, like {@link SectionRepository#releaseSeat} **/
+    boolean tryDecrementNumberOfStudents() {
+        if (numberOfStudents == 0) {
+            return false;
+        }
         numberOfStudents--;
+        return true;
     }
 
-    void checkPrereqs(Collection<Subject> subjectsTaken) {
-        notNull(subjectsTaken, "subjectsTaken can't be null");
-        Collection<Subject> copy = new HashSet<>(subjectsTaken); // sets are quicker to search through
-        subject.checkPrereqs(copy);
+    public boolean hasSeatInventory() {
+        return seatInventory;
     }
 
-    /** Locks this object's ReentrantLock **/
-    void lock() {
-        lock.lock();
+    void enableSeatInventory() {
+        isTrue(!seatInventory, "section " + sectionId + " already has a seat inventory");
+        seatInventory = true;
     }
 
-    /** Unlock this object's ReentrantLock **/
-    void unlock() {
-        lock.unlock();
+    /** Checks against the ordinals of the subjects taken w/o throwing, see {@link SubjectOrdinals} **/
+    boolean hasPrereqsIn(long[] subjectsTaken) {
+        return subject.hasPrereqsIn(subjectsTaken);
+    }
+
+    /** Checks against the ordinals of the subjects taken, see {@link SubjectOrdinals} **/
+    void checkPrereqs(long[] subjectsTaken) {
+        notNull(subjectsTaken, "subjectsTaken can't be null");
+        subject.checkPrereqs(subjectsTaken);
     }
 
     public String getSectionId() {
@@ -108,6 +149,10 @@ public class Section {
         return room;
     }
 
+    public Faculty getInstructor() {
+        return instructor;
+    }
+
     @Override
     public String toString() {
         return sectionId;
@@ -134,5 +179,6 @@ public class Section {
         subject = null;
         schedule = null;
         room = null;
+        instructor = null;
     }
 }
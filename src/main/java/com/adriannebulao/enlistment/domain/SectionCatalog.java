@@ -0,0 +1,235 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.data.domain.*;
+import org.springframework.stereotype.*;
+import org.springframework.transaction.*;
+import org.springframework.transaction.event.*;
+import org.springframework.transaction.support.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
+
+import static org.apache.commons.lang3.Validate.*;
+
+/**
+ * A shared, in-memory catalog of all sections for listing them w/o touching the database. It is loaded once,
+ * then kept up to date by events published as transactions commit: sections created and seats taken or
+ * given back within this app instance. Changes made through other instances show up once the catalog expires
+ * and is reloaded.
+ * <p>
+ * A change committing while the catalog loads may or may not be in what was read, so the sections changed
+ * meanwhile are read again once the load is done, until no more changes come in, see {@link #loadCatchingUp}.
+ * <p>
+ * A catalog w/ more sections than its maximum size is not kept; each listing then reads the database,
+ * only the page asked for.
+ */
+@Component
+public class SectionCatalog {
+
+    /** Published when a section is created **/
+    public record SectionCreated(Section section) {
+    }
+
+    /** Published when students take (positive) or give back (negative) seats of a section **/
+    public record SeatsChanged(String sectionId, int seats) {
+    }
+
+    private final SectionRepository sectionRepo;
+    private final SeatInventory seatInventory;
+    private static final int MAX_CATCH_UP_ROUNDS = 3;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expireAfterNanos;
+    private final int maximumSize;
+    private final ReentrantLock reloading = new ReentrantLock();
+    private volatile Snapshot snapshot;
+    /** Guards {@link #changedWhileLoading} & the publication of a loaded snapshot **/
+    private final Object events = new Object();
+    /** IDs of the sections changed by events since the load started, or null when not loading **/
+    private Set<String> changedWhileLoading;
+
+    SectionCatalog(SectionRepository sectionRepo, SeatInventory seatInventory, PlatformTransactionManager transactionManager,
+                   @Value("${enlistment.catalog.expire-after:1m}") Duration expireAfter,
+                   @Value("${enlistment.catalog.maximum-size:10000}") int maximumSize) {
+        notNull(expireAfter, "expireAfter can't be null");
+        isTrue(!expireAfter.isNegative(), "expireAfter must be non-negative, was: " + expireAfter);
+        isTrue(maximumSize >= 0, "maximumSize must be non-negative, was: " + maximumSize);
+        this.sectionRepo = sectionRepo;
+        this.seatInventory = seatInventory;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expireAfterNanos = expireAfter.toNanos();
+        this.maximumSize = maximumSize;
+    }
+
+    /** All the sections, ordered by section ID **/
+    public Collection<SectionSummary> getSections() {
+        Snapshot current = current();
+        return current.sections == null ? load().values() : Collections.unmodifiableCollection(current.sections.values());
+    }
+
+    /**
+     * The sections as the catalog keeps them, ordered by section ID, w/o loading or reading anything: empty
+     * before the catalog is first loaded and while there are too many sections for it to be kept.
+     */
+    public Optional<Collection<SectionSummary>> getKeptSections() {
+        Snapshot current = snapshot;
+        return current == null || current.sections == null
+                ? Optional.empty() : Optional.of(Collections.unmodifiableCollection(current.sections.values()));
+    }
+
+    /**
+     * One page of the sections matching the filter, ordered by section ID. Filtered in memory while the
+     * catalog is kept, or else by the database.
+     */
+    public Page<SectionSummary> getSections(SectionFilter filter, Pageable pageable) {
+        notNull(filter, "filter can't be null");
+        notNull(pageable, "pageable can't be null");
+        Snapshot current = current();
+        if (current.sections == null) {
+            Pageable byId = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("sectionId"));
+            return readOnlyTransaction.execute(status -> sectionRepo.findAll(filter.toSpecification(), byId)
+                    .map(section -> new SectionSummary(section, seatInventory.countStudents(section))));
+        }
+        List<SectionSummary> matching = current.sections.values().stream().filter(filter::test).toList();
+        int fromIndex = (int) Math.min(pageable.getOffset(), matching.size());
+        int toIndex = Math.min(fromIndex + pageable.getPageSize(), matching.size());
+        return new PageImpl<>(matching.subList(fromIndex, toIndex), pageable, matching.size());
+    }
+
+    /** Drops the catalog, so that the next listing reloads it **/
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    @TransactionalEventListener
+    void onSectionCreated(SectionCreated event) {
+        changedWhileLoading(event.section().getSectionId());
+        Snapshot current = snapshot;
+        if (current == null || current.sections == null) {
+            return;
+        }
+        if (current.sections.size() >= maximumSize) {
+            invalidate(); // let the next reload find it too big
+        } else {
+            Section section = event.section();
+            current.sections.put(section.getSectionId(), new SectionSummary(section, section.getNumberOfStudents()));
+        }
+    }
+
+    @TransactionalEventListener
+    void onSeatsChanged(SeatsChanged event) {
+        changedWhileLoading(event.sectionId());
+        Snapshot current = snapshot;
+        if (current != null && current.sections != null) {
+            current.sections.computeIfPresent(event.sectionId(), (sectionId, summary) -> summary.withSeatsTaken(event.seats()));
+        }
+    }
+
+    private void changedWhileLoading(String sectionId) {
+        synchronized (events) {
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(sectionId);
+            }
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current == null || current.isExpiredAt(System.nanoTime()) ? reload(current) : current;
+    }
+
+    private Snapshot reload(Snapshot stale) {
+        if (stale != null && !reloading.tryLock()) {
+            return stale; // another thread is reloading it; meanwhile the stale one will do
+        } else if (stale == null) {
+            reloading.lock();
+        }
+        try {
+            Snapshot current = snapshot;
+            if (current != stale && current != null) {
+                return current; // reloaded while waiting for the lock
+            }
+            long loadedAt = System.nanoTime();
+            if (sectionRepo.count() > maximumSize) {
+                current = new Snapshot(null, loadedAt);
+                snapshot = current;
+                return current;
+            }
+            return loadCatchingUp(loadedAt);
+        } finally {
+            reloading.unlock();
+        }
+    }
+
+    /**
+     * Loads the catalog & makes it current, then reads again the sections changed by events in the meantime,
+     * as often as events keep coming in while reading them, up to a few times. Still behind after that, as when
+     * enlistment is in full swing, the catalog is made current already expired, so that the next listing loads
+     * it anew while the listings in between are served from it.
+     */
+    private Snapshot loadCatchingUp(long loadedAt) {
+        Set<String> changed = new HashSet<>();
+        synchronized (events) {
+            changedWhileLoading = changed;
+        }
+        try {
+            ConcurrentNavigableMap<String, SectionSummary> sections = load();
+            for (int round = 0; ; round++) {
+                Set<String> toRead;
+                synchronized (events) {
+                    if (changed.isEmpty() || round == MAX_CATCH_UP_ROUNDS) {
+                        Snapshot loaded = new Snapshot(sections, changed.isEmpty() ? loadedAt : loadedAt - expireAfterNanos);
+                        snapshot = loaded; // while holding the lock, so later events are applied to it
+                        changedWhileLoading = null;
+                        return loaded;
+                    }
+                    toRead = new HashSet<>(changed);
+                    changed.clear();
+                }
+                readAgain(sections, toRead);
+            }
+        } finally {
+            synchronized (events) {
+                changedWhileLoading = null;
+            }
+        }
+    }
+
+    private void readAgain(Map<String, SectionSummary> sections, Set<String> sectionIds) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (Section section : sectionRepo.findAllById(sectionIds)) {
+                sections.put(section.getSectionId(), new SectionSummary(section, seatInventory.countStudents(section)));
+            }
+        });
+    }
+
+    /** Loads in a transaction of its own, so the prerequisites of the subjects can be loaded as summaries are made **/
+    private ConcurrentNavigableMap<String, SectionSummary> load() {
+        return readOnlyTransaction.execute(status -> {
+            ConcurrentNavigableMap<String, SectionSummary> sections = new ConcurrentSkipListMap<>();
+            for (Section section : sectionRepo.findAll()) {
+                sections.put(section.getSectionId(), new SectionSummary(section, seatInventory.countStudents(section)));
+            }
+            return sections;
+        });
+    }
+
+    /** The sections as of a load, updated in place by events; null sections when there were too many **/
+    private final class Snapshot {
+        private final ConcurrentNavigableMap<String, SectionSummary> sections;
+        private final long loadedAt;
+
+        private Snapshot(ConcurrentNavigableMap<String, SectionSummary> sections, long loadedAt) {
+            this.sections = sections;
+            this.loadedAt = loadedAt;
+        }
+
+        private boolean isExpiredAt(long now) {
+            return now - loadedAt >= expireAfterNanos;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.adriannebulao.enlistment.domain;
+
+import jakarta.persistence.criteria.*;
+import org.springframework.data.jpa.domain.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Criteria for listing sections, applied either by the database as a {@link Specification} or in memory
+ * to the {@link SectionCatalog}. Unset criteria match every section. Instances are immutable; each
+ * criterion method returns a new filter, and ignores a null argument so request parameters that were
+ * left out can be passed as they are.
+ */
+public final class SectionFilter {
+
+    private static final SectionFilter ALL = new SectionFilter(null, null, null, null, null, false, null, Set.of());
+
+    private final Days days;
+    private final LocalTime from;
+    private final LocalTime to;
+    private final String subjectId;
+    private final String roomName;
+    private final boolean openSeatsOnly;
+    private final Integer notEnlistedBy;
+    private final Set<String> enlistedSectionIds;
+
+    private SectionFilter(Days days, LocalTime from, LocalTime to, String subjectId, String roomName,
+                          boolean openSeatsOnly, Integer notEnlistedBy, Set<String> enlistedSectionIds) {
+        this.days = days;
+        this.from = from;
+        this.to = to;
+        this.subjectId = subjectId;
+        this.roomName = roomName;
+        this.openSeatsOnly = openSeatsOnly;
+        this.notEnlistedBy = notEnlistedBy;
+        this.enlistedSectionIds = enlistedSectionIds;
+    }
+
+    public static SectionFilter all() {
+        return ALL;
+    }
+
+    public SectionFilter onDays(Days days) {
+        return days == null ? this :
+                new SectionFilter(days, from, to, subjectId, roomName, openSeatsOnly, notEnlistedBy, enlistedSectionIds);
+    }
+
+    /** Sections starting no earlier than {@code from} **/
+    public SectionFilter startingFrom(LocalTime from) {
+        return from == null ? this :
+                new SectionFilter(days, from, to, subjectId, roomName, openSeatsOnly, notEnlistedBy, enlistedSectionIds);
+    }
+
+    /** Sections ending no later than {@code to} **/
+    public SectionFilter endingBy(LocalTime to) {
+        return to == null ? this :
+                new SectionFilter(days, from, to, subjectId, roomName, openSeatsOnly, notEnlistedBy, enlistedSectionIds);
+    }
+
+    public SectionFilter ofSubject(String subjectId) {
+        return subjectId == null || subjectId.isBlank() ? this :
+                new SectionFilter(days, from, to, subjectId, roomName, openSeatsOnly, notEnlistedBy, enlistedSectionIds);
+    }
+
+    public SectionFilter inRoom(String roomName) {
+        return roomName == null || roomName.isBlank() ? this :
+                new SectionFilter(days, from, to, subjectId, roomName, openSeatsOnly, notEnlistedBy, enlistedSectionIds);
+    }
+
+    public SectionFilter withOpenSeats(boolean openSeatsOnly) {
+        return new SectionFilter(days, from, to, subjectId, roomName, openSeatsOnly, notEnlistedBy, enlistedSectionIds);
+    }
+
+    public SectionFilter notEnlistedBy(Student student) {
+        if (student == null) {
+            return this;
+        }
+        Set<String> sectionIds = student.getSections().stream().map(Section::getSectionId).collect(Collectors.toUnmodifiableSet());
+        return new SectionFilter(days, from, to, subjectId, roomName, openSeatsOnly, student.getStudentNumber(), sectionIds);
+    }
+
+    /** Tests the summary in memory, the same way {@link #toSpecification()} is evaluated by the database **/
+    boolean test(SectionSummary section) {
+        Schedule schedule = section.getSchedule();
+        return (days == null || days == schedule.getDays())
+                && (from == null || !schedule.getPeriod().getStartTime().isBefore(from))
+                && (to == null || !schedule.getPeriod().getEndTime().isAfter(to))
+                && (subjectId == null || subjectId.equals(section.getSubject()))
+                && (roomName == null || roomName.equals(section.getRoom()))
+                && (!openSeatsOnly || section.hasOpenSeats())
+                && !enlistedSectionIds.contains(section.getSectionId());
+    }
+
+    public Specification<Section> toSpecification() {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            Path<Schedule> schedule = root.get("schedule");
+            if (days != null) {
+                predicates.add(builder.equal(schedule.get("days"), days));
+            }
+            if (from != null) {
+                predicates.add(builder.greaterThanOrEqualTo(schedule.<LocalTime>get("startTime"), from));
+            }
+            if (to != null) {
+                predicates.add(builder.lessThanOrEqualTo(schedule.<LocalTime>get("endTime"), to));
+            }
+            if (subjectId != null) {
+                predicates.add(builder.equal(root.get("subject").get("subjectId"), subjectId));
+            }
+            if (roomName != null) {
+                predicates.add(builder.equal(root.get("room").get("name"), roomName));
+            }
+            if (openSeatsOnly) {
+                predicates.add(hasOpenSeats(root, query, builder));
+            }
+            if (notEnlistedBy != null) {
+                Subquery<String> enlisted = query.subquery(String.class);
+                Join<Student, Section> sections = enlisted.from(Student.class).join("sections");
+                enlisted.select(sections.get("sectionId"))
+                        .where(builder.equal(sections.getParent().get("studentNumber"), notEnlistedBy));
+                predicates.add(builder.not(root.get("sectionId").in(enlisted)));
+            }
+            return builder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /** Counted sections are open below their room's capacity; sections w/ a seat inventory while a seat is free **/
+    private static Predicate hasOpenSeats(Root<Section> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+        Subquery<Integer> freeSeat = query.subquery(Integer.class);
+        Root<Seat> seat = freeSeat.from(Seat.class);
+        freeSeat.select(builder.literal(1))
+                .where(builder.equal(seat.get("section"), root), builder.isNull(seat.get("studentNumber")));
+        return builder.or(
+                builder.and(builder.isFalse(root.get("seatInventory")),
+                        builder.lessThan(root.<Integer>get("numberOfStudents"), root.get("room").<Integer>get("capacity"))),
+                builder.and(builder.isTrue(root.get("seatInventory")), builder.exists(freeSeat)));
+    }
+}
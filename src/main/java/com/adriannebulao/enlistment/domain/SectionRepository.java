@@ -1,9 +1,67 @@
 package com.adriannebulao.enlistment.domain;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.*;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.*;
 import org.springframework.stereotype.*;
 
+import java.util.*;
+
 @Repository
-public interface SectionRepository extends JpaRepository<Section, String> {
+public interface SectionRepository extends JpaRepository<Section, String>, JpaSpecificationExecutor<Section> {
+
+    /** First key of the advisory locks taken on sections, see {@link #lockForSeatChange(String)} **/
+    int SEAT_CHANGE_LOCK_NAMESPACE = 1;
+
+    /**
+     * The section to enlist in or cancel, w/ its room, subject and the subject's direct prerequisites;
+     * prerequisites further down are loaded in batches, see {@code hibernate.default_batch_fetch_size}.
+     */
+    @EntityGraph(attributePaths = {"subject", "subject.prerequisites", "room"})
+    Optional<Section> findWithPrerequisitesBySectionId(String sectionId);
+
+    // the listings below fetch the subject & room of every section in the same query, instead of one query each
+
+    @Override
+    @EntityGraph(attributePaths = {"subject", "room"})
+    List<Section> findAll();
+
+    /** The sections page, the only one showing the instructors **/
+    @Override
+    @EntityGraph(attributePaths = {"subject", "room", "instructor"})
+    Page<Section> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"subject", "room"})
+    Page<Section> findAll(Specification<Section> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"subject", "room"})
+    List<Section> findAllById(Iterable<String> sectionIds);
+
+    /** Takes a seat only if the section is below its room's capacity; returns the number of rows updated, 0 or 1 **/
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "section"))
+    @Query(value = "UPDATE section SET number_of_students = number_of_students + 1, version = version + 1" +
+            " WHERE section_id = :sectionId" +
+            " AND number_of_students < (SELECT capacity FROM room WHERE name = section.room_name)", nativeQuery = true)
+    int reserveSeat(@Param("sectionId") String sectionId);
+
+    /** Gives back a seat, never going below zero; returns the number of rows updated, 0 or 1 **/
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "section"))
+    @Query(value = "UPDATE section SET number_of_students = number_of_students - 1, version = version + 1" +
+            " WHERE section_id = :sectionId AND number_of_students > 0", nativeQuery = true)
+    int releaseSeat(@Param("sectionId") String sectionId);
 
+    /**
+     * Blocks until this transaction holds the advisory lock of the section, which PostgreSQL releases
+     * when the transaction ends.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(" + SEAT_CHANGE_LOCK_NAMESPACE +
+            ", hashtext(:sectionId))) AS locked", nativeQuery = true)
+    int lockForSeatChange(@Param("sectionId") String sectionId);
 }
@@ -0,0 +1,102 @@
+package com.adriannebulao.enlistment.domain;
+
+/**
+ * An immutable, detached view of a section for listing, as kept by the {@link SectionCatalog}.
+ */
+public final class SectionSummary {
+    private final String sectionId;
+    private final String subject;
+    private final Schedule schedule;
+    private final String room;
+    private final int capacity;
+    private final int numberOfStudents;
+    /** Precomputed for {@link Student#checkEligibility}: the slots of the week, the subject & its prerequisites **/
+    private final long slotMask;
+    private final int subjectOrdinal;
+    private final long[] prerequisites;
+
+    SectionSummary(Section section, int numberOfStudents) {
+        this(section.getSectionId(), section.getSubject().toString(), section.getSchedule(),
+                section.getRoom().getName(), section.getRoom().getCapacity(), numberOfStudents,
+                section.slotMask(), section.getSubject().ordinal(), section.getSubject().prerequisiteClosure());
+    }
+
+    private SectionSummary(String sectionId, String subject, Schedule schedule, String room, int capacity,
+                           int numberOfStudents, long slotMask, int subjectOrdinal, long[] prerequisites) {
+        this.sectionId = sectionId;
+        this.subject = subject;
+        this.schedule = schedule;
+        this.room = room;
+        this.capacity = capacity;
+        this.numberOfStudents = numberOfStudents;
+        this.slotMask = slotMask;
+        this.subjectOrdinal = subjectOrdinal;
+        this.prerequisites = prerequisites;
+    }
+
+    /** A copy w/ the number of students changed by the given number of seats, never below zero **/
+    SectionSummary withSeatsTaken(int seats) {
+        return new SectionSummary(sectionId, subject, schedule, room, capacity, Math.max(0, numberOfStudents + seats),
+                slotMask, subjectOrdinal, prerequisites);
+    }
+
+    public boolean hasOpenSeats() {
+        return numberOfStudents < capacity;
+    }
+
+    long slotMask() {
+        return slotMask;
+    }
+
+    int subjectOrdinal() {
+        return subjectOrdinal;
+    }
+
+    long[] prerequisites() {
+        return prerequisites;
+    }
+
+    public String getSectionId() {
+        return sectionId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Schedule getSchedule() {
+        return schedule;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getNumberOfStudents() {
+        return numberOfStudents;
+    }
+
+    @Override
+    public String toString() {
+        return sectionId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SectionSummary that = (SectionSummary) o;
+
+        return sectionId.equals(that.sectionId);
+    }
+
+    @Override
+    public int hashCode() {
+        return sectionId.hashCode();
+    }
+}
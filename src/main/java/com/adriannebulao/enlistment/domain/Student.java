@@ -5,14 +5,24 @@ import java.util.*;
 import static org.apache.commons.lang3.Validate.*;
 @Entity
 public class Student {
+    private static final long TIMETABLE_NOT_COMPUTED = -1L;
+
     @Id
     private final int studentNumber;
     private final String firstname;
     private final String lastname;
+    /** Sets rather than bags, so both can be fetched in the one query of {@link StudentRepository} **/
     @ManyToMany
-    private final Collection<Section> sections = new HashSet<>();
+    private final Set<Section> sections = new HashSet<>();
     @ManyToMany
-    private final Collection<Subject> subjectsTaken = new HashSet<>();
+    private final Set<Subject> subjectsTaken = new HashSet<>();
+
+    /** Union of the slot masks of all enlisted sections, kept in step with {@link #sections} **/
+    @Transient
+    private long timetable = TIMETABLE_NOT_COMPUTED;
+    /** Ordinals of {@link #subjectsTaken}, see {@link SubjectOrdinals} **/
+    @Transient
+    private long[] subjectsTakenBits;
 
     Student(int studentNumber, String firstname, String lastname, Collection<Section> sections, Collection<Subject> subjectsTaken) {
         isTrue (studentNumber >= 0,
@@ -39,28 +49,260 @@ public class Student {
     }
 
     public void enlist(Section newSection) {
+        enlist(newSection, SeatAllocator.IN_MEMORY);
+    }
+
+    /**
+     * Enlists in the section, throwing the reason it was refused, see {@link #tryEnlist}.
+     *
+     * @throws EnlistmentException if the section was refused, see {@link #refusal}
+     */
+    public void enlist(Section newSection, SeatAllocator seatAllocator) {
+        Eligibility result = tryEnlist(newSection, seatAllocator);
+        if (!result.isEnlistable()) {
+            throw refusal(result, newSection);
+        }
+    }
+
+    /**
+     * Enlists in the section unless it is refused, in which case nothing is changed. Refusals make up much
+     * of the traffic of a rush, so they are told by a reason code rather than thrown: no message or exception
+     * is made until whoever surfaces the refusal asks for one, see {@link #refusal}.
+     *
+     * @return {@link Eligibility#ENLISTABLE} once enlisted, or else the reason the section was refused
+     */
+    public Eligibility tryEnlist(Section newSection, SeatAllocator seatAllocator) {
         notNull(newSection,"section can't be null") ;
-        sections.forEach(currSection -> checkForConflict(currSection, newSection) );
-        newSection.checkPrereqs(subjectsTaken);
-        newSection.lock(); // one thread at a time... this only works if single app instance
+        notNull(seatAllocator, "seatAllocator can't be null");
+        Eligibility result;
+        // one thread at a time per student & per section within this app instance; across instances, the seat
+        // allocator keeps the section within capacity
+        try (EnlistmentLocks.Held locks = EnlistmentLocks.shared().lock(this, newSection)) {
+            result = checkEnlistable(newSection, sections, timetable());
+            if (result.isEnlistable()) {
+                if (reserve(newSection, seatAllocator)) {
+                    sections.add(newSection);
+                    timetable = timetable() | newSection.slotMask();
+                } else {
+                    result = Eligibility.FULL;
+                }
+            }
+        }
+        if (!result.isEnlistable()) {
+            EnlistmentStatistics.shared().refused(result);
+        }
+        return result;
+    }
+
+    /**
+     * Enlists in all the given sections, or in none of them. Every section is checked against the
+     * enlisted sections and against the other given sections before any seat is reserved, then seats are
+     * reserved in order of section ID so that concurrent batches cannot deadlock on them.
+     *
+     * @return the reason each refused section was refused, in order of section ID; empty if all were enlisted
+     */
+    public Map<Section, Eligibility> enlistAll(Collection<Section> newSections, SeatAllocator seatAllocator) {
+        notNull(newSections, "newSections can't be null");
+        notNull(seatAllocator, "seatAllocator can't be null");
+        List<Section> sortedSections = newSections.stream().filter(Objects::nonNull).distinct()
+                .sorted(Comparator.comparing(Section::getSectionId)).toList();
+        Map<Section, Eligibility> refusals = new LinkedHashMap<>();
+        try (EnlistmentLocks.Held locks = EnlistmentLocks.shared().lock(this, sortedSections)) {
+            Collection<Section> accepted = new ArrayList<>(sections);
+            long acceptedTimetable = timetable();
+            for (Section newSection : sortedSections) {
+                Eligibility result = checkEnlistable(newSection, accepted, acceptedTimetable);
+                if (result.isEnlistable()) {
+                    accepted.add(newSection);
+                    acceptedTimetable |= newSection.slotMask();
+                } else {
+                    refusals.put(newSection, result);
+                }
+            }
+            if (refusals.isEmpty()) {
+                reserveAll(sortedSections, seatAllocator, refusals);
+            }
+            if (refusals.isEmpty()) {
+                sections.addAll(sortedSections);
+                timetable = acceptedTimetable;
+            }
+        }
+        refusals.values().forEach(EnlistmentStatistics.shared()::refused);
+        return refusals;
+    }
+
+    private void reserveAll(List<Section> sortedSections, SeatAllocator seatAllocator,
+                            Map<Section, Eligibility> refusals) {
+        List<Section> reserved = new ArrayList<>();
+        for (Section newSection : sortedSections) {
+            if (!reserve(newSection, seatAllocator)) {
+                refusals.put(newSection, Eligibility.FULL);
+                reserved.forEach(section -> seatAllocator.release(this, section)); // all or nothing
+                return;
+            }
+            reserved.add(newSection);
+        }
+    }
+
+    private boolean reserve(Section newSection, SeatAllocator seatAllocator) {
+        long start = System.nanoTime();
         try {
-            newSection.incrementNumberOfStudents();
-            sections.add(newSection);
+            return seatAllocator.tryReserve(this, newSection);
         } finally {
-            newSection.unlock(); // release lock
+            EnlistmentStatistics.shared().record(EnlistmentStatistics.Phase.SEAT_RESERVE, start);
+        }
+    }
+
+    /** Checks the rules of the student's own, i.e. all but the seats left, w/o allocating anything **/
+    private Eligibility checkEnlistable(Section newSection, Collection<Section> enlisted, long enlistedTimetable) {
+        EnlistmentStatistics statistics = EnlistmentStatistics.shared();
+        long start = System.nanoTime();
+        Eligibility result = Eligibility.ENLISTABLE;
+        if ((enlistedTimetable & newSection.slotMask()) != 0) {
+            result = Eligibility.SCHEDULE_CONFLICT;
+        } else {
+            for (Section currSection : enlisted) {
+                if (currSection.hasSameSubject(newSection)) {
+                    result = Eligibility.SAME_SUBJECT;
+                    break;
+                }
+            }
+        }
+        start = statistics.record(EnlistmentStatistics.Phase.CONFLICT_CHECK, start);
+        if (result.isEnlistable()) {
+            if (!newSection.hasPrereqsIn(subjectsTakenBits())) {
+                result = Eligibility.PREREQ_MISSING;
+            }
+            statistics.record(EnlistmentStatistics.Phase.PREREQ_CHECK, start);
         }
+        return result;
+    }
+
+    /**
+     * The exception surfacing why the section was refused, e.g. to the student: a {@link ScheduleConflictException},
+     * {@link SameSubjectException}, {@link PrereqMissingException} or {@link CapacityException} w/ a message
+     * naming what the section conflicts with or lacks. Made only when asked for, see {@link #tryEnlist}.
+     */
+    public EnlistmentException refusal(Eligibility reason, Section section) {
+        String message = explainRefusal(reason, section);
+        return switch (reason) {
+            case SCHEDULE_CONFLICT, ALREADY_ENLISTED -> new ScheduleConflictException(message);
+            case SAME_SUBJECT -> new SameSubjectException(message);
+            case PREREQ_MISSING -> new PrereqMissingException(message);
+            case FULL -> new CapacityException(message);
+            case ENLISTABLE -> throw new IllegalArgumentException("section " + section + " wasn't refused");
+        };
+    }
+
+    /** Why the section was refused, naming the enlisted section it conflicts with or the prerequisites missing **/
+    public String explainRefusal(Eligibility reason, Section section) {
+        notNull(reason, "reason can't be null");
+        notNull(section, "section can't be null");
+        return switch (reason) {
+            case ALREADY_ENLISTED -> "Already enlisted in section " + section;
+            case SCHEDULE_CONFLICT -> sections.stream()
+                    .filter(enlisted -> enlisted.hasScheduleConflict(section))
+                    .findFirst()
+                    .map(enlisted -> "Schedule overlap between this section " + section + " at " + section.getSchedule()
+                            + " & enlisted section " + enlisted + " at " + enlisted.getSchedule())
+                    .orElse("Section " + section + " at " + section.getSchedule() + " overlaps another section");
+            case SAME_SUBJECT -> sections.stream()
+                    .filter(enlisted -> enlisted.hasSameSubject(section))
+                    .findFirst()
+                    .map(enlisted -> "This section " + section + " & other section " + enlisted
+                            + " have same subject of " + section.getSubject())
+                    .orElse("Section " + section + " has the same subject as another section, " + section.getSubject());
+            case PREREQ_MISSING -> "missing prereqs: " + section.getSubject().missingPrereqs(subjectsTakenBits());
+            case FULL -> "no seat left in section " + section + " w/ room capacity of " + section.getRoom().getCapacity();
+            case ENLISTABLE -> throw new IllegalArgumentException("section " + section + " wasn't refused");
+        };
     }
 
-    private void checkForConflict(Section currSection, Section newSection) {
-        currSection.checkForScheduleConflict(newSection);
-        currSection.checkSameSubject(newSection);
+    /**
+     * Evaluates all four enlistment rules for each of the sections in one pass over them, against bitsets of
+     * the enlisted timetable, enlisted subjects & subjects taken, w/o throwing any exception.
+     * Unlike {@link #enlist}, it doesn't lock anything, so a section found enlistable may still be refused.
+     *
+     * @return the eligibility of each section, in the order given
+     */
+    public Map<SectionSummary, Eligibility> checkEligibility(Collection<SectionSummary> candidates) {
+        notNull(candidates, "candidates can't be null");
+        Set<String> enlistedSectionIds = new HashSet<>();
+        long[] enlistedSubjects = SubjectOrdinals.EMPTY;
+        for (Section section : sections) {
+            enlistedSectionIds.add(section.getSectionId());
+            enlistedSubjects = SubjectOrdinals.with(enlistedSubjects, section.getSubject().ordinal());
+        }
+        long enlistedTimetable = timetable();
+        long[] subjectsTaken = subjectsTakenBits();
+        Map<SectionSummary, Eligibility> eligibility = new LinkedHashMap<>();
+        for (SectionSummary candidate : candidates) {
+            Eligibility result;
+            if (enlistedSectionIds.contains(candidate.getSectionId())) {
+                result = Eligibility.ALREADY_ENLISTED;
+            } else if ((enlistedTimetable & candidate.slotMask()) != 0) {
+                result = Eligibility.SCHEDULE_CONFLICT;
+            } else if (SubjectOrdinals.contains(enlistedSubjects, candidate.subjectOrdinal())) {
+                result = Eligibility.SAME_SUBJECT;
+            } else if (!SubjectOrdinals.containsAll(subjectsTaken, candidate.prerequisites())) {
+                result = Eligibility.PREREQ_MISSING;
+            } else if (!candidate.hasOpenSeats()) {
+                result = Eligibility.FULL;
+            } else {
+                result = Eligibility.ENLISTABLE;
+            }
+            eligibility.put(candidate, result);
+        }
+        return eligibility;
+    }
+
+    /** Returns the slots of the week taken up by the enlisted sections, computing it once per load **/
+    private long timetable() {
+        if (timetable == TIMETABLE_NOT_COMPUTED) {
+            long computed = 0;
+            for (Section section : sections) {
+                computed |= section.slotMask();
+            }
+            timetable = computed;
+        }
+        return timetable;
+    }
+
+    private long[] subjectsTakenBits() {
+        if (subjectsTakenBits == null) {
+            long[] computed = SubjectOrdinals.EMPTY;
+            for (Subject subject : subjectsTaken) {
+                computed = SubjectOrdinals.with(computed, subject.ordinal());
+            }
+            subjectsTakenBits = computed;
+        }
+        return subjectsTakenBits;
+    }
+
+    @PostLoad
+    private void resetDerivedState() {
+        // sections & subjects taken may have been reloaded, e.g. by a refresh
+        timetable = TIMETABLE_NOT_COMPUTED;
+        subjectsTakenBits = null;
     }
 
     public void cancel(Section section) {
+        cancel(section, SeatAllocator.IN_MEMORY);
+    }
+
+    public void cancel(Section section, SeatAllocator seatAllocator) {
         notNull(section, "section can't be null");
-        if (sections.contains(section)) {
-            sections.remove(section);
-            section.decrementNumberOfStudents();
+        notNull(seatAllocator, "seatAllocator can't be null");
+        try (EnlistmentLocks.Held locks = EnlistmentLocks.shared().lock(this, section)) {
+            if (sections.contains(section)) {
+                sections.remove(section);
+                long start = System.nanoTime();
+                seatAllocator.release(this, section);
+                EnlistmentStatistics.shared().record(EnlistmentStatistics.Phase.SEAT_RELEASE, start);
+                if (timetable != TIMETABLE_NOT_COMPUTED) {
+                    timetable &= ~section.slotMask(); // enlisted sections never overlap, so no other section owns these slots
+                }
+            }
         }
     }
 
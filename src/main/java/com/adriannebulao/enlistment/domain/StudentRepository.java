@@ -3,8 +3,19 @@ package com.adriannebulao.enlistment.domain;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.*;
 
+import java.util.*;
+
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Integer> {
 
+    /**
+     * The student w/ the enlisted sections, their subjects & rooms, and the subjects taken, in one query;
+     * all that rendering the enlist page needs.
+     */
+    @EntityGraph(attributePaths = {"sections", "sections.subject", "sections.room", "subjectsTaken"})
+    Optional<Student> findWithSectionsByStudentNumber(int studentNumber);
 
+    /** The students of a batch of enlistments, each fetched like {@link #findWithSectionsByStudentNumber(int)} **/
+    @EntityGraph(attributePaths = {"sections", "sections.subject", "sections.room", "subjectsTaken"})
+    List<Student> findWithSectionsByStudentNumberIn(Collection<Integer> studentNumbers);
 }
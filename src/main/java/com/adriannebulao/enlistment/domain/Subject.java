@@ -1,39 +1,154 @@
 package com.adriannebulao.enlistment.domain;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.*;
+
 import jakarta.persistence.*;
+import jakarta.persistence.Entity;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 
 import static org.apache.commons.lang3.StringUtils.isAlphanumeric;
 import static org.apache.commons.lang3.Validate.*;
+/** Reference data, kept in the second-level cache along w/ its prerequisites, see {@link ReferenceDataCache} **/
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Subject {
+    /**
+     * Bumped whenever prerequisites change, so that cached closures get recomputed: when added in memory, when
+     * written to the database in any persistence context, see {@link PrerequisiteChanges}, and when the reference
+     * data is evicted after changing in any other way, see {@link ReferenceDataCache#evictAll()}.
+     */
+    private static final AtomicInteger GRAPH_GENERATION = new AtomicInteger();
+    /**
+     * Closures of the subjects loaded from the database, by subject ID, shared by all the instances of a subject,
+     * as each persistence context loads instances of its own; those of an older {@link #GRAPH_GENERATION} are
+     * recomputed when next asked for.
+     */
+    private static final Map<String, Closure> CLOSURES = new ConcurrentHashMap<>();
+
     @Id
     private final String subjectId;
     @ManyToMany
-    private final Collection<Subject> prerequisites = new HashSet<>();
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    private final Set<Subject> prerequisites = new HashSet<>();
+
+    @Transient
+    private int ordinal = -1;
+    /** Whether loaded from the database, and so sharing its closure w/ the other instances of the subject **/
+    @Transient
+    private final boolean loaded;
+    /** The closure of a subject made in memory, which may not be what is in the database, so kept to itself **/
+    @Transient
+    private volatile Closure closure;
 
     Subject(String subjectId, Collection<Subject> prerequisites) {
         notBlank(subjectId);
         notNull(prerequisites, "prerequisites can't be null");
         isTrue(isAlphanumeric(subjectId), "subjectId must be alphanumeric, was: " + subjectId);
         this.subjectId = subjectId;
-        this.prerequisites.addAll(prerequisites);
-        this.prerequisites.removeIf(Objects::isNull);
+        this.loaded = false;
+        prerequisites.stream().filter(Objects::nonNull).forEach(this::addPrerequisite);
     }
 
     Subject(String subjectId) {
         this(subjectId, Collections.emptyList());
     }
 
-    void checkPrereqs(Collection<Subject> subjectsTaken) {
+    void addPrerequisite(Subject prerequisite) {
+        notNull(prerequisite, "prerequisite can't be null");
+        isTrue(!prerequisite.requires(this),
+                "prerequisite " + prerequisite + " would create a cycle, it already requires " + this);
+        prerequisites.add(prerequisite);
+        graphChanged();
+    }
+
+    /** Makes every cached closure be recomputed, see {@link #GRAPH_GENERATION} **/
+    static void graphChanged() {
+        GRAPH_GENERATION.incrementAndGet();
+    }
+
+    /** Returns true if this is the given subject or has it as a direct or indirect prerequisite **/
+    boolean requires(Subject other) {
+        return this.equals(other) || SubjectOrdinals.contains(prerequisiteClosure(), other.ordinal());
+    }
+
+    /** Whether all the direct & indirect prerequisites are among the subjects taken; allocates nothing **/
+    boolean hasPrereqsIn(long[] subjectsTaken) {
         notNull(subjectsTaken, "subjectsTaken can't be null");
-        Collection<Subject> copySubjectsTaken = new HashSet<>(subjectsTaken); // sets are quicker to search through
-        if (!copySubjectsTaken.containsAll(prerequisites)) {
-            Collection<Subject> copyOfPrereqs = new HashSet<>(prerequisites);
-            copyOfPrereqs.removeAll(copySubjectsTaken);
+        return SubjectOrdinals.containsAll(subjectsTaken, prerequisiteClosure());
+    }
+
+    void checkPrereqs(long[] subjectsTaken) {
+        if (!hasPrereqsIn(subjectsTaken)) {
             throw new PrereqMissingException(
-                    "missing prereqs: " + copyOfPrereqs);
+                    "missing prereqs: " + missingPrereqs(subjectsTaken));
+        }
+    }
+
+    /** The direct & indirect prerequisites not among the subjects taken, ordered by subject ID **/
+    Collection<Subject> missingPrereqs(long[] subjectsTaken) {
+        Collection<Subject> missingPrereqs = new TreeSet<>(Comparator.comparing(Subject::toString));
+        collectMissingPrereqs(subjectsTaken, missingPrereqs);
+        return missingPrereqs;
+    }
+
+    private void collectMissingPrereqs(long[] subjectsTaken, Collection<Subject> missingPrereqs) {
+        for (Subject prereq : prerequisites) {
+            if (!SubjectOrdinals.contains(subjectsTaken, prereq.ordinal())) {
+                missingPrereqs.add(prereq);
+            }
+            prereq.collectMissingPrereqs(subjectsTaken, missingPrereqs);
+        }
+    }
+
+    int ordinal() {
+        if (ordinal < 0) {
+            ordinal = SubjectOrdinals.ordinalOf(subjectId);
         }
+        return ordinal;
+    }
+
+    /**
+     * Returns the ordinals of all direct and indirect prerequisites, computed once per prerequisite graph change;
+     * for a subject loaded from the database, once for all its instances, whichever persistence context loaded them.
+     */
+    long[] prerequisiteClosure() {
+        Closure cached = cachedClosure();
+        if (cached == null || cached.generation != GRAPH_GENERATION.get()) {
+            cached = computeClosure(new HashSet<>());
+        }
+        return cached.bits;
+    }
+
+    private Closure cachedClosure() {
+        return loaded ? CLOSURES.get(subjectId) : closure;
+    }
+
+    private Closure computeClosure(Set<Subject> path) {
+        validState(path.add(this), "prerequisite cycle through %s", this);
+        int generation = GRAPH_GENERATION.get();
+        long[] bits = SubjectOrdinals.EMPTY;
+        for (Subject prereq : prerequisites) {
+            Closure prereqClosure = prereq.cachedClosure();
+            if (prereqClosure == null || prereqClosure.generation != generation) {
+                prereqClosure = prereq.computeClosure(path);
+            }
+            bits = SubjectOrdinals.union(SubjectOrdinals.with(bits, prereq.ordinal()), prereqClosure.bits);
+        }
+        path.remove(this);
+        Closure computed = new Closure(generation, bits);
+        if (loaded) {
+            // a closure computed meanwhile from a newer graph is kept
+            CLOSURES.merge(subjectId, computed, (old, neu) -> old.generation - neu.generation > 0 ? old : neu);
+        } else {
+            closure = computed;
+        }
+        return computed;
+    }
+
+    private record Closure(int generation, long[] bits) {
     }
 
     @Override
@@ -59,5 +174,6 @@ public class Subject {
     // For JPA only! Do not call!
     private Subject() {
         this.subjectId = null;
+        this.loaded = true;
     }
 }
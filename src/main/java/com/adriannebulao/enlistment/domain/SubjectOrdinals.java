@@ -0,0 +1,58 @@
+package com.adriannebulao.enlistment.domain;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Gives every subject ID a dense, process-wide ordinal, so that sets of subjects such as
+ * prerequisite closures and subjects taken can be kept as bitsets of {@code long} words.
+ * A bitset is never mutated once shared; the methods that add to one return a new array.
+ */
+final class SubjectOrdinals {
+
+    static final long[] EMPTY = new long[0];
+
+    private static final Map<String, Integer> ORDINALS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ORDINAL = new AtomicInteger();
+
+    static int ordinalOf(String subjectId) {
+        return ORDINALS.computeIfAbsent(subjectId, id -> NEXT_ORDINAL.getAndIncrement());
+    }
+
+    static boolean contains(long[] bits, int ordinal) {
+        int word = ordinal >>> 6;
+        return word < bits.length && (bits[word] & (1L << ordinal)) != 0;
+    }
+
+    /** Returns true if every subject in {@code subset} is also in {@code bits}; allocates nothing **/
+    static boolean containsAll(long[] bits, long[] subset) {
+        for (int word = 0; word < subset.length; word++) {
+            long available = word < bits.length ? bits[word] : 0;
+            if ((subset[word] & ~available) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static long[] with(long[] bits, int ordinal) {
+        long[] result = Arrays.copyOf(bits, Math.max(bits.length, (ordinal >>> 6) + 1));
+        result[ordinal >>> 6] |= 1L << ordinal;
+        return result;
+    }
+
+    static long[] union(long[] bits, long[] other) {
+        if (other.length == 0) {
+            return bits;
+        }
+        long[] result = Arrays.copyOf(bits, Math.max(bits.length, other.length));
+        for (int word = 0; word < other.length; word++) {
+            result[word] |= other[word];
+        }
+        return result;
+    }
+
+    private SubjectOrdinals() {
+    }
+}
@@ -1,10 +1,17 @@
 package com.adriannebulao.enlistment.domain;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.*;
 
+import java.util.*;
+
 @Repository
 public interface SubjectRepository extends JpaRepository<Subject, String> {
 
-
+    /** All the subjects, the results cached until a subject is changed **/
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Subject> findAll();
 }
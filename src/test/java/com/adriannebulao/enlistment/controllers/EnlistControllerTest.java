@@ -1,15 +1,21 @@
 package com.adriannebulao.enlistment.controllers;
 
 import com.adriannebulao.enlistment.domain.*;
-import org.hibernate.*;
 import org.junit.jupiter.api.*;
+import org.springframework.transaction.*;
+import org.springframework.transaction.support.*;
+import org.springframework.ui.*;
+import org.springframework.web.servlet.mvc.support.*;
 
-import jakarta.persistence.*;
+import java.time.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import static com.adriannebulao.enlistment.domain.TestUtils.*;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 
@@ -20,9 +26,8 @@ class EnlistControllerTest {
     private final String sectionId = DEFAULT_SECTION_ID;
     private SectionRepository sectionRepository;
     private StudentRepository studentRepository;
-    private EntityManager entityManager;
-    private Session session;
     private Section section;
+    private SeatAllocator seatAllocator;
 
     @BeforeEach
     void setUp() {
@@ -31,28 +36,34 @@ class EnlistControllerTest {
         section = newDefaultSection();
 
         sectionRepository = mock(SectionRepository.class);
-        when(sectionRepository.findById(sectionId)).thenReturn(Optional.of(section));
+        when(sectionRepository.findWithPrerequisitesBySectionId(sectionId)).thenReturn(Optional.of(section));
         enlistController.setSectionRepo(sectionRepository);
 
         studentRepository = mock(StudentRepository.class);
+        when(studentRepository.findWithSectionsByStudentNumber(DEFAULT_STUDENT_NUMBER)).thenReturn(Optional.of(student));
         enlistController.setStudentRepo(studentRepository);
 
-        entityManager = mock(EntityManager.class);
-        session = mock(Session.class);
-        when(entityManager.unwrap(Session.class)).thenReturn(session);
-        enlistController.setEntityManager(entityManager);
+        seatAllocator = mock(SeatAllocator.class);
+        enlistController.setSeatAllocator(seatAllocator);
+
+        enlistController.setTransactionTemplate(new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        enlistController.setSectionRetries(new SectionRetries(10, Duration.ZERO, Duration.ZERO));
     }
 
     @Test
     void enlistOrCancel_enlist_student_in_section() {
+        // Given the student can enlist in the section
+        when(student.tryEnlist(section, seatAllocator)).thenReturn(Eligibility.ENLISTABLE);
+
         // When we call the enlistOrCancel method with the ENLIST action
-        String returnPath = enlistController.enlistOrCancel(student, sectionId, UserAction.ENLIST);
+        String returnPath = enlistController.enlistOrCancel(DEFAULT_STUDENT_NUMBER, sectionId, UserAction.ENLIST);
 
         // Then
         assertAll(
                 () -> verifyCommonInteractions(),
                 // call enlist method on student and pass the section
-                () -> verify(student).enlist(section),
+                () -> verify(student).tryEnlist(section, seatAllocator),
                 // return to the same page but implement post-redirect-get pattern
                 () -> assertEquals("redirect:enlist", returnPath)
         );
@@ -61,30 +72,117 @@ class EnlistControllerTest {
     @Test
     void enlistOrCancel_cancel_student_enlistment() {
         // When we call the enlistOrCancel method with the CANCEL action
-        String returnPath = enlistController.enlistOrCancel(student, sectionId, UserAction.CANCEL);
+        String returnPath = enlistController.enlistOrCancel(DEFAULT_STUDENT_NUMBER, sectionId, UserAction.CANCEL);
 
         // Then
         assertAll(
                 () -> verifyCommonInteractions(),
                 // call cancel method on student and pass the section
-                () -> verify(student).cancel(section),
+                () -> verify(student).cancel(section, seatAllocator),
                 // return to the same page but implement post-redirect-get pattern
                 () -> assertEquals("redirect:enlist", returnPath)
         );
     }
 
+    @Test
+    void enlistAll_enlist_student_in_all_sections() {
+        // Given all the sections can be enlisted in
+        when(sectionRepository.findAllById(List.of(sectionId))).thenReturn(List.of(section));
+        when(student.enlistAll(anyCollection(), eq(seatAllocator))).thenReturn(Collections.emptyMap());
+        RedirectAttributes redirectAttrs = new RedirectAttributesModelMap();
+
+        // When we call the enlistAll method
+        String returnPath = enlistController.enlistAll(DEFAULT_STUDENT_NUMBER, List.of(sectionId), redirectAttrs);
+
+        // Then
+        assertAll(
+                // fetch the student once for the whole batch
+                () -> verify(studentRepository).findWithSectionsByStudentNumber(DEFAULT_STUDENT_NUMBER),
+                () -> verify(studentRepository).save(student),
+                () -> assertEquals(Map.of(sectionId, "Enlisted"), redirectAttrs.getFlashAttributes().get("batchEnlistmentResults")),
+                () -> assertEquals("redirect:/enlist", returnPath)
+        );
+    }
+
+    @Test
+    void enlistAll_section_not_found() {
+        // Given one of the sections doesn't exist
+        when(sectionRepository.findAllById(List.of(sectionId, "missing"))).thenReturn(List.of(section));
+
+        // When we call the enlistAll method, then the batch fails w/o enlisting the student
+        BatchEnlistmentException e = assertThrows(BatchEnlistmentException.class,
+                () -> enlistController.enlistAll(DEFAULT_STUDENT_NUMBER, List.of(sectionId, "missing"), new RedirectAttributesModelMap()));
+        assertAll(
+                () -> assertEquals(Set.of(sectionId, "missing"), e.getResults().keySet()),
+                () -> verify(student, never()).enlistAll(anyCollection(), any()),
+                () -> verify(studentRepository, never()).save(student)
+        );
+    }
+
+    @Test
+    void enlistOrCancel_through_the_section_writer() {
+        // Given enlistments are applied by the section's single writer
+        SectionWriters sectionWriters = mock(SectionWriters.class);
+        when(sectionWriters.submit(DEFAULT_STUDENT_NUMBER, sectionId, UserAction.ENLIST))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        enlistController.setSectionWriters(sectionWriters);
+
+        // When we call the enlistOrCancel method with the ENLIST action
+        String returnPath = enlistController.enlistOrCancel(DEFAULT_STUDENT_NUMBER, sectionId, UserAction.ENLIST);
+
+        // Then
+        assertAll(
+                // the writer enlists, not the request thread
+                () -> verify(student, never()).tryEnlist(any(), any()),
+                () -> verify(studentRepository, never()).save(student),
+                // nor is the student fetched on the request thread; the next page fetches it w/ the new section
+                () -> verify(studentRepository, never()).findWithSectionsByStudentNumber(anyInt()),
+                () -> assertEquals("redirect:enlist", returnPath)
+        );
+    }
+
+    @Test
+    void enlistOrCancel_section_writer_refuses() {
+        // Given the section's single writer refuses the enlistment
+        SectionWriters sectionWriters = mock(SectionWriters.class);
+        EnlistmentException refusal = mock(EnlistmentException.class);
+        when(sectionWriters.submit(DEFAULT_STUDENT_NUMBER, sectionId, UserAction.ENLIST))
+                .thenReturn(CompletableFuture.failedFuture(refusal));
+        enlistController.setSectionWriters(sectionWriters);
+
+        // When we call the enlistOrCancel method, then the refusal is thrown on the request thread
+        assertEquals(refusal, assertThrows(EnlistmentException.class,
+                () -> enlistController.enlistOrCancel(DEFAULT_STUDENT_NUMBER, sectionId, UserAction.ENLIST)));
+    }
+
+    @Test
+    void initStudent_keeps_only_the_student_number() {
+        // Given a student logging in
+        final int studentNumber = 1;
+        when(studentRepository.existsById(studentNumber)).thenReturn(true);
+        Model model = new ExtendedModelMap();
+
+        // When the student is initialized
+        enlistController.initStudent(model, studentNumber);
+
+        // Then the model, whose session attributes go into the HTTP session, holds the number, not the student
+        assertAll(
+                () -> assertEquals(studentNumber, model.getAttribute(EnlistController.STUDENT_NUMBER)),
+                () -> assertFalse(model.containsAttribute("student")),
+                () -> verify(studentRepository, never()).findWithSectionsByStudentNumber(anyInt())
+        );
+    }
+
     /**
      * Verifies the common interactions that occur in both enlist and cancel actions.
      */
     private void verifyCommonInteractions() {
-        // fetch the section from the repository using the sectionId
-        verify(sectionRepository).findById(sectionId);
-        // fetch Hibernate session
-        verify(entityManager).unwrap(Session.class);
-        // reattach student to Hibernate session
-        verify(session).update(student);
-        // save the section
-        verify(sectionRepository).save(section);
+        // fetch the section, w/ what enlisting needs, from the repository using the sectionId
+        verify(sectionRepository).findWithPrerequisitesBySectionId(sectionId);
+        // fetch the student afresh, instead of reattaching one kept in the HTTP session
+        verify(studentRepository).findWithSectionsByStudentNumber(DEFAULT_STUDENT_NUMBER);
+        // the seat count is saved by the seat allocator, not by saving the section
+        verify(sectionRepository, never()).save(section);
         // save the student
         verify(studentRepository).save(student);
     }
@@ -0,0 +1,151 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.domain.*;
+import org.junit.jupiter.api.*;
+import org.springframework.data.domain.*;
+import org.springframework.http.*;
+import org.springframework.orm.*;
+import org.springframework.transaction.*;
+import org.springframework.transaction.support.*;
+
+import java.time.*;
+import java.util.*;
+
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EnlistmentApiControllerTest {
+
+    private EnlistmentApiController apiController;
+    private SectionCatalog sectionCatalog;
+    private StudentRepository studentRepository;
+    private SeatAllocator seatAllocator;
+    private final Section section = newDefaultSection();
+
+    @BeforeEach
+    void setUp() {
+        apiController = new EnlistmentApiController();
+        sectionCatalog = mock(SectionCatalog.class);
+        apiController.setSectionCatalog(sectionCatalog);
+        SectionRepository sectionRepository = mock(SectionRepository.class);
+        when(sectionRepository.findWithPrerequisitesBySectionId(DEFAULT_SECTION_ID)).thenReturn(Optional.of(section));
+        apiController.setSectionRepo(sectionRepository);
+        studentRepository = mock(StudentRepository.class);
+        apiController.setStudentRepo(studentRepository);
+        seatAllocator = mock(SeatAllocator.class);
+        apiController.setSeatAllocator(seatAllocator);
+        apiController.setTransactionTemplate(new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        apiController.setSectionRetries(new SectionRetries(10, Duration.ZERO, Duration.ZERO));
+    }
+
+    @Test
+    void getSections_etag_changes_only_with_seats_taken() {
+        // Given the same listing twice, then once w/ a seat taken
+        when(sectionCatalog.getSections(any(SectionFilter.class), any(Pageable.class))).thenReturn(
+                new PageImpl<>(List.of(newSectionSummary(section, 3))),
+                new PageImpl<>(List.of(newSectionSummary(section, 3))),
+                new PageImpl<>(List.of(newSectionSummary(section, 4))));
+
+        // When the sections are listed each time
+        ResponseEntity<EnlistmentApiController.SectionPageJson> first = apiController.getSections(null, null, null, null, null, false, 0);
+        ResponseEntity<EnlistmentApiController.SectionPageJson> same = apiController.getSections(null, null, null, null, null, false, 0);
+        ResponseEntity<EnlistmentApiController.SectionPageJson> changed = apiController.getSections(null, null, null, null, null, false, 0);
+
+        // Then the strong ETag is the same for the same listing only
+        String etag = first.getHeaders().getETag();
+        assertAll(
+                () -> assertNotNull(etag),
+                () -> assertFalse(etag.startsWith("W/")),
+                () -> assertEquals(etag, same.getHeaders().getETag()),
+                () -> assertNotEquals(etag, changed.getHeaders().getETag()),
+                () -> assertEquals(List.of(new EnlistmentApiController.SectionJson(DEFAULT_SECTION_ID, DEFAULT_SUBJECT_ID,
+                        MTH830to10.toString(), "X", 10, 3)), first.getBody().sections())
+        );
+    }
+
+    @Test
+    void enlist_student_in_section() {
+        // Given a student
+        Student student = mock(Student.class);
+        when(studentRepository.findWithSectionsByStudentNumber(DEFAULT_STUDENT_NUMBER)).thenReturn(Optional.of(student));
+        when(student.tryEnlist(section, seatAllocator)).thenReturn(Eligibility.ENLISTABLE);
+
+        // When the student enlists through the API
+        ResponseEntity<Void> response = apiController.enlist(DEFAULT_STUDENT_NUMBER, DEFAULT_STUDENT_NUMBER, DEFAULT_SECTION_ID);
+
+        // Then the student is enlisted & saved, w/ nothing to answer
+        assertAll(
+                () -> verify(student).tryEnlist(section, seatAllocator),
+                () -> verify(studentRepository).save(student),
+                () -> assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode())
+        );
+    }
+
+    @Test
+    void enlist_unknown_student_is_not_found() {
+        // When an unknown student enlists, then the API answers 404 w/ the reason
+        NoSuchElementException e = assertThrows(NoSuchElementException.class,
+                () -> apiController.enlist(DEFAULT_STUDENT_NUMBER, DEFAULT_STUDENT_NUMBER, DEFAULT_SECTION_ID));
+        ResponseEntity<EnlistmentApiController.ErrorJson> response = apiController.handleNotFound(e);
+        assertAll(
+                () -> assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode()),
+                () -> assertEquals(e.getMessage(), response.getBody().message())
+        );
+    }
+
+    @Test
+    void enlist_in_section_busy_past_all_retries_is_unavailable() {
+        // Given a student whose enlistment keeps conflicting w/ others
+        Student student = mock(Student.class);
+        when(studentRepository.findWithSectionsByStudentNumber(DEFAULT_STUDENT_NUMBER)).thenReturn(Optional.of(student));
+        when(student.tryEnlist(section, seatAllocator)).thenReturn(Eligibility.ENLISTABLE);
+        when(studentRepository.save(student)).thenThrow(new ObjectOptimisticLockingFailureException(Section.class, DEFAULT_SECTION_ID));
+
+        // When the student enlists, then the API answers 503 & when to try again
+        SectionBusyException e = assertThrows(SectionBusyException.class,
+                () -> apiController.enlist(DEFAULT_STUDENT_NUMBER, DEFAULT_STUDENT_NUMBER, DEFAULT_SECTION_ID));
+        ResponseEntity<EnlistmentApiController.ErrorJson> response = apiController.handleBusy(e);
+        assertAll(
+                () -> verify(studentRepository, times(10)).save(student),
+                () -> assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode()),
+                () -> assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))
+        );
+    }
+
+    @Test
+    void enlist_refused_is_a_conflict_with_the_reason() {
+        // Given a student refused the section for a reason code
+        Student student = mock(Student.class);
+        when(studentRepository.findWithSectionsByStudentNumber(DEFAULT_STUDENT_NUMBER)).thenReturn(Optional.of(student));
+        when(student.tryEnlist(section, seatAllocator)).thenReturn(Eligibility.FULL);
+        EnlistmentException refusal = mock(EnlistmentException.class);
+        when(refusal.getMessage()).thenReturn("no seat left");
+        when(student.refusal(Eligibility.FULL, section)).thenReturn(refusal);
+
+        // When the student enlists, then the refusal is only made into an exception here, & answered w/ 409
+        assertEquals(refusal, assertThrows(EnlistmentException.class,
+                () -> apiController.enlist(DEFAULT_STUDENT_NUMBER, DEFAULT_STUDENT_NUMBER, DEFAULT_SECTION_ID)));
+        ResponseEntity<EnlistmentApiController.ErrorJson> response = apiController.handleException(refusal);
+        assertAll(
+                () -> verify(studentRepository, never()).save(student),
+                () -> assertEquals(HttpStatus.CONFLICT, response.getStatusCode()),
+                () -> assertEquals("no seat left", response.getBody().message())
+        );
+    }
+
+    @Test
+    void enlist_as_another_student_is_forbidden() {
+        // When the logged-in student enlists in another student's name, or no student is logged in
+        LoginException other = assertThrows(LoginException.class,
+                () -> apiController.enlist(DEFAULT_STUDENT_NUMBER, DEFAULT_STUDENT_NUMBER + 1, DEFAULT_SECTION_ID));
+        assertThrows(LoginException.class, () -> apiController.cancel(null, DEFAULT_STUDENT_NUMBER, DEFAULT_SECTION_ID));
+        assertThrows(LoginException.class, () -> apiController.getTimetable(null, DEFAULT_STUDENT_NUMBER));
+
+        // Then the API answers 403, w/o looking up anyone
+        assertAll(
+                () -> assertEquals(HttpStatus.FORBIDDEN, apiController.handleLogin(other).getStatusCode()),
+                () -> verifyNoInteractions(studentRepository)
+        );
+    }
+}
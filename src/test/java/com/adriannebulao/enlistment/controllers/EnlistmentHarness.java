@@ -0,0 +1,176 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.*;
+import com.adriannebulao.enlistment.domain.*;
+import org.springframework.boot.builder.*;
+import org.springframework.boot.web.context.*;
+import org.springframework.context.*;
+import org.springframework.jdbc.core.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.*;
+import java.net.*;
+import java.net.http.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+/**
+ * What the integration & load tests running many students against real app instances share: starting an
+ * instance on a PostgreSQL container, in the test's JVM or in one of its own, inserting students & sections,
+ * logging students in over HTTP, and summing up latencies.
+ */
+final class EnlistmentHarness {
+
+    /** Students inserted by the tests are numbered from this on, after those of import.sql **/
+    static final int FIRST_STUDENT_NUMBER = 11;
+
+    private EnlistmentHarness() {
+    }
+
+    /**
+     * Starts an instance of the app on a random port, creating the schema in the container's database.
+     *
+     * @param properties more properties, e.g. {@code "enlistment.seat-allocation=in-memory"}, overriding these
+     */
+    static ConfigurableApplicationContext startInstance(PostgreSQLContainer<?> postgres, String... properties) {
+        return new SpringApplicationBuilder(EnlistmentMvpApplication.class)
+                .properties(instanceProperties(postgres, 0))
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * Starts an instance of the app in a JVM of its own, on the test's classpath, so that it shares nothing in
+     * memory w/ the instances of the test's JVM, e.g. not the {@link EnlistmentLocks}; waits until it is up.
+     *
+     * @param properties more properties, overriding these, as for {@link #startInstance}
+     * @return the instance's process, to {@link #stopProcess} once done
+     */
+    static Process startProcess(PostgreSQLContainer<?> postgres, int port, String... properties)
+            throws IOException, InterruptedException {
+        Map<String, String> byName = new LinkedHashMap<>();
+        Stream.concat(Stream.of(instanceProperties(postgres, port)), Stream.of(properties)).forEach(property -> {
+            String[] nameAndValue = property.split("=", 2);
+            byName.put(nameAndValue[0], nameAndValue[1]); // a property named twice on the command line would get both values
+        });
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                "-Dspring.devtools.restart.enabled=false",
+                EnlistmentMvpApplication.class.getName()));
+        byName.forEach((name, value) -> command.add("--" + name + "=" + value));
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build();
+        long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("instance on port " + port + " exited w/ " + process.exitValue());
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return process;
+                }
+            } catch (IOException notListeningYet) {
+                // still starting
+            }
+            Thread.sleep(200);
+        }
+        stopProcess(process);
+        throw new IllegalStateException("instance on port " + port + " not up after 2 minutes");
+    }
+
+    static void stopProcess(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    /** A port no one listens on at the moment **/
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String[] instanceProperties(PostgreSQLContainer<?> postgres, int port) {
+        return new String[]{
+                "server.port=" + port,
+                "spring.datasource.url=" + postgres.getJdbcUrl(),
+                "spring.datasource.username=" + postgres.getUsername(),
+                "spring.datasource.password=" + postgres.getPassword(),
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.show-sql=false"};
+    }
+
+    /** Where the instance listens, e.g. {@code http://localhost:52345/} **/
+    static URI baseUri(ConfigurableApplicationContext instance) {
+        return URI.create("http://localhost:" + ((WebServerApplicationContext) instance).getWebServer().getPort() + "/");
+    }
+
+    /** Inserts students numbered from {@link #FIRST_STUDENT_NUMBER} on, in one batch **/
+    static void insertStudents(JdbcTemplate jdbcTemplate, int numberOfStudents) {
+        List<Object[]> batchArgs = new ArrayList<>();
+        for (int i = 0; i < numberOfStudents; i++) {
+            batchArgs.add(new Object[]{FIRST_STUDENT_NUMBER + i, "firstname", "lastname"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO student(student_number, firstname, lastname) VALUES (?, ?, ?)", batchArgs);
+    }
+
+    /** Inserts a section meeting from 9am to 10am, in a room & of a subject of its own, w/ no students **/
+    static void insertSection(JdbcTemplate jdbcTemplate, String sectionId, String roomName, int capacity,
+                              String subjectId, Days days) {
+        jdbcTemplate.update("INSERT INTO room (name, capacity) VALUES (?, ?)", roomName, capacity);
+        jdbcTemplate.update("INSERT INTO subject (subject_id) VALUES (?)", subjectId);
+        jdbcTemplate.update(
+                "INSERT INTO section (section_id, number_of_students, days, start_time, end_time, room_name, subject_subject_id, version)" +
+                        " VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                sectionId, 0, days.ordinal(), LocalTime.of(9, 0), LocalTime.of(10, 0), roomName, subjectId, 0);
+    }
+
+    /**
+     * Logs the student in as the login page does.
+     *
+     * @return the session cookie to send w/ the student's requests
+     */
+    static CompletableFuture<String> logIn(HttpClient client, URI baseUri, int studentNumber) {
+        HttpRequest login = HttpRequest.newBuilder(baseUri.resolve("enlist?studentNumber=" + studentNumber)).build();
+        return client.sendAsync(login, HttpResponse.BodyHandlers.discarding()).thenApply(response ->
+                response.headers().firstValue("Set-Cookie").map(cookie -> cookie.split(";", 2)[0]).orElseThrow(() ->
+                        new IllegalStateException("student " + studentNumber + " got no session, status " + response.statusCode())));
+    }
+
+    /** Executors.newVirtualThreadPerTaskExecutor(), which can't be referenced while compiling for Java 17 **/
+    static ExecutorService newVirtualThreadPerTaskExecutor() throws ReflectiveOperationException {
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+
+    /** E.g. {@code 200 in 1234 ms, 162.1/s} **/
+    static String throughput(int count, Duration elapsed) {
+        return String.format("%d in %d ms, %.1f/s", count, elapsed.toMillis(), count * 1000.0 / Math.max(1, elapsed.toMillis()));
+    }
+
+    /** E.g. {@code 200 requests, p50 3 ms, p95 12 ms, p99 40 ms, max 52 ms} **/
+    static String latencies(Collection<Long> nanos) {
+        long[] sorted = nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (sorted.length == 0) {
+            return "no requests";
+        }
+        return String.format("%d requests, p50 %d ms, p95 %d ms, p99 %d ms, max %d ms", sorted.length,
+                percentileMillis(sorted, 50), percentileMillis(sorted, 95), percentileMillis(sorted, 99),
+                Duration.ofNanos(sorted[sorted.length - 1]).toMillis());
+    }
+
+    static String latencies(long[] nanos) {
+        return latencies(LongStream.of(nanos).boxed().toList());
+    }
+
+    private static long percentileMillis(long[] sortedNanos, int percentile) {
+        int index = Math.min(sortedNanos.length - 1, (int) Math.ceil(sortedNanos.length * percentile / 100.0) - 1);
+        return Duration.ofNanos(sortedNanos[Math.max(0, index)]).toMillis();
+    }
+}
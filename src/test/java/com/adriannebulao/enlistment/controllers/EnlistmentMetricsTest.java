@@ -0,0 +1,116 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.domain.*;
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.simple.*;
+import org.junit.jupiter.api.*;
+import org.springframework.orm.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.stream.*;
+
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EnlistmentMetricsTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private SectionCatalog sectionCatalog;
+    private SectionRetries sectionRetries;
+    private EnlistmentMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        sectionCatalog = mock(SectionCatalog.class);
+        sectionRetries = new SectionRetries(10, Duration.ZERO, Duration.ZERO);
+        // refreshed only by the test
+        metrics = new EnlistmentMetrics(sectionCatalog, sectionRetries, 2, Duration.ofHours(1));
+        metrics.bindTo(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        metrics.destroy();
+    }
+
+    @Test
+    void bindTo_registers_a_timer_per_phase_and_a_counter_per_refusal() {
+        Set<String> phases = registry.find("enlistment.phase").functionTimers().stream()
+                .map(timer -> timer.getId().getTag("phase")).collect(Collectors.toSet());
+        Set<String> refusals = registry.find("enlistment.refusals").functionCounters().stream()
+                .map(counter -> counter.getId().getTag("reason")).collect(Collectors.toSet());
+
+        assertAll(
+                () -> assertEquals(Set.of("conflict_check", "prereq_check", "seat_reserve", "seat_release", "flush", "lock_wait"), phases),
+                () -> assertEquals(Set.of("already_enlisted", "schedule_conflict", "same_subject", "prereq_missing", "full"), refusals)
+        );
+    }
+
+    @Test
+    void retry_counters_sum_up_all_sections() {
+        // Given attempts that conflicted once in each of two sections
+        conflictOnce("A");
+        conflictOnce("B");
+
+        // Then the counters sum up both
+        assertAll(
+                () -> assertEquals(4, registry.get("enlistment.retry.attempts").functionCounter().count()),
+                () -> assertEquals(2, registry.get("enlistment.retry.conflicts").functionCounter().count()),
+                () -> assertEquals(0, registry.get("enlistment.retry.busy").functionCounter().count())
+        );
+    }
+
+    @Test
+    void refreshSections_gauges_only_the_fullest_sections() {
+        // Given three sections, of which two are fuller
+        when(sectionCatalog.getKeptSections()).thenReturn(Optional.of(List.of(
+                newSectionSummary(newSection("A"), 2),
+                newSectionSummary(newSection("B"), 9),
+                newSectionSummary(newSection("C"), 5))));
+
+        // When the gauges are refreshed
+        metrics.refreshSections();
+
+        // Then only the fullest two sections have a gauge
+        Map<String, Double> fill = registry.find("enlistment.section.seat.fill").gauges().stream()
+                .collect(Collectors.toMap(gauge -> gauge.getId().getTag("section"), Gauge::value));
+        assertEquals(Map.of("B", 0.9, "C", 0.5), fill);
+
+        // And the gauge of a section dropping out of the top is removed
+        when(sectionCatalog.getKeptSections()).thenReturn(Optional.of(List.of(
+                newSectionSummary(newSection("A"), 10),
+                newSectionSummary(newSection("B"), 9),
+                newSectionSummary(newSection("C"), 5))));
+        metrics.refreshSections();
+        Set<String> sections = registry.find("enlistment.section.seat.fill").gauges().stream()
+                .map(gauge -> gauge.getId().getTag("section")).collect(Collectors.toSet());
+        assertEquals(Set.of("A", "B"), sections);
+    }
+
+    @Test
+    void refreshSections_leaves_fill_gauges_while_catalog_not_kept() {
+        // Given gauged sections, then a catalog no longer kept, e.g. as it grew too big
+        when(sectionCatalog.getKeptSections()).thenReturn(Optional.of(List.of(newSectionSummary(newSection("A"), 2))));
+        metrics.refreshSections();
+        when(sectionCatalog.getKeptSections()).thenReturn(Optional.empty());
+
+        // When the gauges are refreshed, then the sections aren't read some other way, and the gauges stay
+        metrics.refreshSections();
+        assertAll(
+                () -> verify(sectionCatalog, never()).getSections(),
+                () -> assertEquals(1, registry.find("enlistment.section.seat.fill").gauges().size())
+        );
+    }
+
+    private void conflictOnce(String sectionId) {
+        boolean[] conflicted = {false};
+        sectionRetries.run(sectionId, () -> {
+            if (!conflicted[0]) {
+                conflicted[0] = true;
+                throw new ObjectOptimisticLockingFailureException(Section.class, sectionId);
+            }
+        });
+    }
+}
@@ -0,0 +1,159 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.domain.*;
+import com.fasterxml.jackson.databind.*;
+import org.junit.jupiter.api.*;
+import org.springframework.web.servlet.mvc.method.annotation.*;
+
+import java.io.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatUpdatesTest {
+
+    private SeatUpdates seatUpdates;
+
+    @BeforeEach
+    void setUp() {
+        // windows long enough that only the test sends
+        seatUpdates = new SeatUpdates(new ObjectMapper(), Duration.ofHours(1), Duration.ofHours(1), Duration.ofMinutes(1),
+                Duration.ofMillis(200), 4, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        seatUpdates.destroy();
+    }
+
+    @Test
+    void send_changes_summed_up_per_section_once_per_window() {
+        // Given seats taken & given back in several sections during a window
+        seatUpdates.subscribe();
+        seatUpdates.onSeatsChanged(new SectionCatalog.SeatsChanged("A", 1));
+        seatUpdates.onSeatsChanged(new SectionCatalog.SeatsChanged("A", 1));
+        seatUpdates.onSeatsChanged(new SectionCatalog.SeatsChanged("B", 1));
+        seatUpdates.onSeatsChanged(new SectionCatalog.SeatsChanged("A", 1));
+        seatUpdates.onSeatsChanged(new SectionCatalog.SeatsChanged("C", 1));
+        seatUpdates.onSeatsChanged(new SectionCatalog.SeatsChanged("C", -1));
+
+        // When the window ends, then one change per section is sent, leaving out those that cancelled out
+        assertEquals(Map.of("A", 3, "B", 1), seatUpdates.send());
+        assertEquals(1, seatUpdates.getNumberOfSubscribers());
+
+        // When the next window ends w/o changes, then nothing is sent
+        assertEquals(Map.of(), seatUpdates.send());
+    }
+
+    @Test
+    void send_drops_slow_and_failed_subscribers_wo_holding_up_the_others() throws Exception {
+        // Given a subscriber whose writes never finish, one whose writes fail, and one keeping up
+        CountDownLatch never = new CountDownLatch(1);
+        Subscriber slow = new Subscriber(() -> never.await());
+        Subscriber failing = new Subscriber(() -> {
+            throw new IOException("Broken pipe");
+        });
+        Subscriber fast = new Subscriber(() -> {
+        });
+        seatUpdates.subscribe(slow);
+        seatUpdates.subscribe(failing);
+        seatUpdates.subscribe(fast);
+
+        try {
+            // When seats change, then the window is sent to the one keeping up, and the failing one is dropped
+            seatUpdates.onSeatsChanged(new SectionCatalog.SeatsChanged("A", 1));
+            seatUpdates.send();
+            awaitUntil(() -> fast.sent == 1 && failing.error != null);
+            assertInstanceOf(IOException.class, failing.error);
+
+            // When a window ends after the slow one's write took longer than the send timeout, then it is dropped
+            Thread.sleep(300);
+            seatUpdates.send();
+            assertAll(
+                    () -> assertInstanceOf(TimeoutException.class, slow.error),
+                    () -> assertNull(fast.error),
+                    () -> assertEquals(1, seatUpdates.getNumberOfSubscribers())
+            );
+        } finally {
+            never.countDown();
+        }
+    }
+
+    @Test
+    void send_drops_a_stalled_subscriber_alone() throws Exception {
+        // Given a subscriber whose writes never finish among many keeping up, whose writes all together take
+        // the sending threads longer than the send timeout, though each takes far less
+        CountDownLatch never = new CountDownLatch(1);
+        Subscriber stalled = new Subscriber(() -> never.await());
+        seatUpdates.subscribe(stalled);
+        List<Subscriber> others = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Subscriber other = new Subscriber(() -> Thread.sleep(5));
+            others.add(other);
+            seatUpdates.subscribe(other);
+        }
+
+        try {
+            // When seats change over windows longer than the send timeout
+            final int windows = 3;
+            for (int window = 0; window < windows; window++) {
+                seatUpdates.onSeatsChanged(new SectionCatalog.SeatsChanged("A", 1));
+                seatUpdates.send();
+                Thread.sleep(300);
+            }
+
+            // Then every window is written to the others, and only the stalled one is dropped
+            awaitUntil(() -> others.stream().allMatch(other -> other.sent == windows));
+            assertAll(
+                    () -> assertInstanceOf(TimeoutException.class, stalled.error),
+                    () -> assertTrue(others.stream().allMatch(other -> other.error == null)),
+                    () -> assertEquals(others.size(), seatUpdates.getNumberOfSubscribers())
+            );
+        } finally {
+            never.countDown();
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean(), "not done within 10s");
+    }
+
+    /** A subscriber writing as told, remembering what it was completed w/ **/
+    private static class Subscriber extends SseEmitter {
+        private final Write write;
+        private volatile int sent;
+        private volatile Throwable error;
+
+        Subscriber(Write write) {
+            this.write = write;
+        }
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) throws IOException {
+            try {
+                write.write();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+            sent++;
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            error = ex;
+            super.completeWithError(ex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        void write() throws IOException, InterruptedException;
+    }
+}
@@ -0,0 +1,93 @@
+package com.adriannebulao.enlistment.controllers;
+
+import org.junit.jupiter.api.*;
+import org.springframework.orm.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SectionRetriesTest {
+
+    private final SectionRetries sectionRetries = new SectionRetries(3, Duration.ZERO, Duration.ZERO);
+
+    @Test
+    void run_retries_conflicts_until_the_attempt_succeeds() {
+        // Given an attempt that conflicts twice
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When it is run
+        String result = sectionRetries.run("ABC", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Object.class, "ABC");
+            }
+            return "done";
+        });
+
+        // Then it succeeds on the third attempt, w/ the conflicts counted for the section
+        assertAll(
+                () -> assertEquals("done", result),
+                () -> assertEquals(3, attempts.get()),
+                () -> assertEquals(3, sectionRetries.getStatistics().get("ABC").attempts()),
+                () -> assertEquals(2, sectionRetries.getStatistics().get("ABC").conflicts()),
+                () -> assertEquals(0, sectionRetries.getStatistics().get("ABC").busy())
+        );
+    }
+
+    @Test
+    void run_gives_up_with_section_busy_once_out_of_attempts() {
+        // Given an attempt that always conflicts
+        Runnable attempt = () -> {
+            throw new ObjectOptimisticLockingFailureException(Object.class, "ABC");
+        };
+
+        // When it is run
+        SectionBusyException e = assertThrows(SectionBusyException.class, () -> sectionRetries.run("ABC", attempt));
+
+        // Then the section is reported busy after the last attempt
+        assertAll(
+                () -> assertEquals("ABC", e.getSectionId()),
+                () -> assertEquals(3, sectionRetries.getStatistics().get("ABC").attempts()),
+                () -> assertEquals(1, sectionRetries.getStatistics().get("ABC").busy())
+        );
+    }
+
+    @Test
+    void run_does_not_retry_other_exceptions() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> sectionRetries.run("ABC", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException();
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void backoff_grows_with_attempts_and_conflict_rate_up_to_the_maximum() {
+        SectionRetries retries = new SectionRetries(10, Duration.ofMillis(5), Duration.ofMillis(500));
+
+        assertAll(
+                () -> assertEquals(Duration.ofMillis(5).toNanos(), retries.backoffNanos(1, 0)),
+                () -> assertEquals(Duration.ofMillis(20).toNanos(), retries.backoffNanos(3, 0)),
+                () -> assertEquals(Duration.ofMillis(40).toNanos(), retries.backoffNanos(3, 1)),
+                () -> assertEquals(Duration.ofMillis(500).toNanos(), retries.backoffNanos(10, 0.5))
+        );
+    }
+
+    @Test
+    void getStatistics_lists_the_most_contended_sections_first() {
+        sectionRetries.run("ABC", () -> {
+        });
+        AtomicInteger attempts = new AtomicInteger();
+        sectionRetries.run("DEF", () -> {
+            if (attempts.incrementAndGet() < 2) {
+                throw new ObjectOptimisticLockingFailureException(Object.class, "DEF");
+            }
+        });
+
+        assertEquals(List.of("DEF", "ABC"), new ArrayList<>(sectionRetries.getStatistics().keySet()));
+    }
+}
@@ -0,0 +1,177 @@
+package com.adriannebulao.enlistment.controllers;
+
+import com.adriannebulao.enlistment.domain.*;
+import org.junit.jupiter.api.*;
+import org.springframework.mock.env.*;
+import org.springframework.transaction.*;
+import org.springframework.transaction.support.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SectionWritersTest {
+
+    private final Section section = newDefaultSection();
+    private SectionRepository sectionRepository;
+    private StudentRepository studentRepository;
+    private PlatformTransactionManager transactionManager;
+    private SectionWriters sectionWriters;
+
+    @BeforeEach
+    void setUp() {
+        sectionRepository = mock(SectionRepository.class);
+        when(sectionRepository.existsById(DEFAULT_SECTION_ID)).thenReturn(true);
+        when(sectionRepository.findWithPrerequisitesBySectionId(DEFAULT_SECTION_ID)).thenReturn(Optional.of(section));
+        studentRepository = mock(StudentRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        sectionWriters = new SectionWriters(sectionRepository, studentRepository, SeatAllocator.IN_MEMORY,
+                new TransactionTemplate(transactionManager), new MockEnvironment(), 8);
+    }
+
+    @Test
+    void submit_students_beyond_capacity() throws Exception {
+        // Given more students than the section's capacity of 10
+        final int numberOfStudents = 25;
+        List<Student> students = new ArrayList<>();
+        for (int i = 1; i <= numberOfStudents; i++) {
+            students.add(newStudent(i));
+        }
+        when(studentRepository.findWithSectionsByStudentNumberIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Integer> studentNumbers = invocation.getArgument(0);
+            return students.stream().filter(student -> studentNumbers.contains(student.getStudentNumber())).toList();
+        });
+
+        // When all of them are submitted at the same time
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 1; i <= numberOfStudents; i++) {
+            results.add(sectionWriters.submit(i, DEFAULT_SECTION_ID, UserAction.ENLIST));
+        }
+        int enlisted = 0;
+        int refused = 0;
+        for (CompletableFuture<Void> result : results) {
+            try {
+                result.get(10, TimeUnit.SECONDS);
+                enlisted++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(EnlistmentException.class, e.getCause());
+                refused++;
+            }
+        }
+
+        // Then exactly the capacity is enlisted, in batches of at most 8 per transaction, one query for each batch's students
+        final int capacity = 10;
+        assertEquals(capacity, enlisted);
+        assertEquals(numberOfStudents - capacity, refused);
+        assertAll(
+                () -> assertEquals(capacity, students.stream().filter(s -> s.getSections().contains(section)).count()),
+                () -> verify(transactionManager, atLeast(numberOfStudents / 8)).commit(any()),
+                () -> verify(studentRepository, never()).findById(anyInt())
+        );
+    }
+
+    @Test
+    void submit_fails_whole_batch_when_transaction_fails() {
+        // Given the transaction cannot commit
+        Student student = newDefaultStudent();
+        when(studentRepository.findWithSectionsByStudentNumberIn(List.of(DEFAULT_STUDENT_NUMBER))).thenReturn(List.of(student));
+        doThrow(new TransactionSystemException("commit failed")).when(transactionManager).commit(any());
+
+        // When the student enlists, then the enlistment fails w/ the reason
+        CompletableFuture<Void> result = sectionWriters.submit(DEFAULT_STUDENT_NUMBER, DEFAULT_SECTION_ID, UserAction.ENLIST);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(TransactionSystemException.class, e.getCause());
+    }
+
+    @Test
+    void submit_to_unknown_section_fails_wo_queueing() {
+        // When a student enlists in a section that doesn't exist
+        CompletableFuture<Void> result = sectionWriters.submit(DEFAULT_STUDENT_NUMBER, "NOSUCH", UserAction.ENLIST);
+
+        // Then the enlistment fails at once, and no queue is kept for the section
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(NoSuchElementException.class, e.getCause());
+        assertEquals(0, sectionWriters.getQueueCount());
+        verify(sectionRepository, never()).findWithPrerequisitesBySectionId("NOSUCH");
+    }
+
+    @Test
+    void submit_drops_queue_once_drained() throws Exception {
+        // Given a student enlisted through the section's writer
+        Student student = newDefaultStudent();
+        when(studentRepository.findWithSectionsByStudentNumberIn(List.of(DEFAULT_STUDENT_NUMBER))).thenReturn(List.of(student));
+        sectionWriters.submit(DEFAULT_STUDENT_NUMBER, DEFAULT_SECTION_ID, UserAction.ENLIST).get(10, TimeUnit.SECONDS);
+
+        // When the writer finds the queue empty, then it drops the queue
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (sectionWriters.getQueueCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, sectionWriters.getQueueCount());
+
+        // And a later command on the section gets a new queue & writer
+        sectionWriters.submit(DEFAULT_STUDENT_NUMBER, DEFAULT_SECTION_ID, UserAction.CANCEL).get(10, TimeUnit.SECONDS);
+        assertFalse(student.getSections().contains(section));
+    }
+
+    @Test
+    void submit_holds_locks_of_batch_for_whole_transaction() throws Exception {
+        // Given the section's & the student's stripes held by another thread, e.g. a batch enlistment
+        Student student = newDefaultStudent();
+        when(studentRepository.findWithSectionsByStudentNumberIn(List.of(DEFAULT_STUDENT_NUMBER))).thenReturn(List.of(student));
+        CompletableFuture<Void> result;
+        try (EnlistmentLocks.Held held = EnlistmentLocks.shared().lock(DEFAULT_SECTION_ID, List.of(DEFAULT_STUDENT_NUMBER))) {
+            // When the student enlists through the writer
+            result = sectionWriters.submit(DEFAULT_STUDENT_NUMBER, DEFAULT_SECTION_ID, UserAction.ENLIST);
+            Thread.sleep(100);
+            // Then the writer waits for the stripes before starting its transaction
+            assertFalse(result.isDone());
+            verify(transactionManager, never()).getTransaction(any());
+        }
+        result.get(10, TimeUnit.SECONDS);
+        assertTrue(student.getSections().contains(section));
+    }
+
+    @Test
+    void submit_while_drain_finishes_keeps_one_writer_per_section() throws Exception {
+        // Given writers that note how many writers run whenever they load the section
+        Student student = newDefaultStudent();
+        when(studentRepository.findWithSectionsByStudentNumberIn(List.of(DEFAULT_STUDENT_NUMBER))).thenReturn(List.of(student));
+        AtomicInteger mostWriters = new AtomicInteger();
+        when(sectionRepository.findWithPrerequisitesBySectionId(DEFAULT_SECTION_ID)).thenAnswer(invocation -> {
+            mostWriters.accumulateAndGet(sectionWriters.getWriterCount(), Math::max);
+            return Optional.of(section);
+        });
+
+        // When commands keep coming in on several threads, many of them just as the writer finds its queue empty
+        final int numberOfThreads = 4;
+        final int commandsPerThread = 500;
+        ExecutorService submitters = Executors.newFixedThreadPool(numberOfThreads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < numberOfThreads; t++) {
+                done.add(submitters.submit(() -> {
+                    for (int i = 0; i < commandsPerThread; i++) {
+                        UserAction action = i % 2 == 0 ? UserAction.ENLIST : UserAction.CANCEL;
+                        sectionWriters.submit(DEFAULT_STUDENT_NUMBER, DEFAULT_SECTION_ID, action)
+                                .handle((result, e) -> null).get(10, TimeUnit.SECONDS);
+                        mostWriters.accumulateAndGet(sectionWriters.getWriterCount(), Math::max);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            submitters.shutdownNow();
+        }
+
+        // Then there never was more than one writer for the section
+        assertEquals(1, mostWriters.get());
+    }
+}
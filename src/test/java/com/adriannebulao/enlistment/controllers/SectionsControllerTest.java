@@ -3,6 +3,7 @@ package com.adriannebulao.enlistment.controllers;
 import com.adriannebulao.enlistment.domain.*;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
+import org.springframework.context.*;
 import org.springframework.web.servlet.mvc.support.*;
 
 import java.time.LocalDate;
@@ -20,6 +21,8 @@ class SectionsControllerTest {
     private SubjectRepository subjectRepository;
     private SectionRepository sectionRepository;
     private RoomRepository roomRepository;
+    private FacultyRepository facultyRepository;
+    private ApplicationEventPublisher eventPublisher;
     private RedirectAttributes redirectAttrs;
 
     private final String sectionId = DEFAULT_SECTION_ID;
@@ -31,12 +34,16 @@ class SectionsControllerTest {
         subjectRepository = mock(SubjectRepository.class);
         sectionRepository = mock(SectionRepository.class);
         roomRepository = mock(RoomRepository.class);
+        facultyRepository = mock(FacultyRepository.class);
         redirectAttrs = new RedirectAttributesModelMap();
 
         sectionsController = new SectionsController();
         sectionsController.setSubjectRepo(subjectRepository);
         sectionsController.setSectionRepo(sectionRepository);
         sectionsController.setRoomRepo(roomRepository);
+        sectionsController.setFacultyRepo(facultyRepository);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        sectionsController.setEventPublisher(eventPublisher);
     }
 
 
@@ -47,9 +54,11 @@ class SectionsControllerTest {
         Subject subject = mock(Subject.class);
         Section section = mock(Section.class);
         Room room = mock(Room.class);
+        Faculty instructor = mock(Faculty.class);
 
         when(subjectRepository.findById(subjectId)).thenReturn(Optional.of(subject));
         when(roomRepository.findById(roomId)).thenReturn(Optional.of(room));
+        when(facultyRepository.findById(DEFAULT_FACULTY_NUMBER)).thenReturn(Optional.of(instructor));
         when(sectionRepository.save(any(Section.class))).thenReturn(section);
 
         // When the controller receives the arguments
@@ -60,6 +69,7 @@ class SectionsControllerTest {
                 LocalTime.of(8, 30).toString(),
                 LocalTime.of(10, 0).toString(),
                 roomId,
+                DEFAULT_FACULTY_NUMBER,
                 redirectAttrs
         );
 
@@ -68,12 +78,52 @@ class SectionsControllerTest {
                 // Verify that it retrieves the entities from the database
                 () -> verify(subjectRepository).findById(subjectId),
                 () -> verify(roomRepository).findById(roomId),
+                () -> verify(facultyRepository).findById(DEFAULT_FACULTY_NUMBER),
                 // Verify that it saves the section in the database
                 () -> verify(sectionRepository).save(any(Section.class)),
+                // Verify that the section catalog is told about the new section
+                () -> verify(eventPublisher).publishEvent(new SectionCatalog.SectionCreated(section)),
                 // Verify that the flash attribute is set correctly
                 () -> assertEquals("Successfully created new section " + sectionId, redirectAttrs.getFlashAttributes().get("sectionSuccessMessage")),
                 // Verify that it returns the correct redirect path
                 () -> assertEquals("redirect:sections", returnPath)
         );
     }
+
+    @Test
+    void createSection_unknown_instructor() {
+        // Given no member of the faculty w/ the given faculty number
+        when(subjectRepository.findById(subjectId)).thenReturn(Optional.of(mock(Subject.class)));
+        when(roomRepository.findById(roomId)).thenReturn(Optional.of(mock(Room.class)));
+        when(facultyRepository.findById(DEFAULT_FACULTY_NUMBER)).thenReturn(Optional.empty());
+
+        // When the controller receives the arguments
+        String returnPath = sectionsController.createSection(sectionId, subjectId, MTH, "08:30", "10:00", roomId,
+                DEFAULT_FACULTY_NUMBER, redirectAttrs);
+
+        // Then no section is saved, & the admin is told why
+        assertAll(
+                () -> verify(sectionRepository, never()).save(any(Section.class)),
+                () -> assertEquals("No faculty found with faculty number: " + DEFAULT_FACULTY_NUMBER,
+                        redirectAttrs.getFlashAttributes().get("sectionExceptionMessage")),
+                () -> assertEquals("redirect:sections", returnPath)
+        );
+    }
+
+    @Test
+    void evictReferenceData_evicts_cache() {
+        // Given the reference data cache
+        ReferenceDataCache referenceDataCache = mock(ReferenceDataCache.class);
+        sectionsController.setReferenceDataCache(referenceDataCache);
+
+        // When the admin evicts it
+        String returnPath = sectionsController.evictReferenceData(redirectAttrs);
+
+        // Then subjects, prerequisites & rooms are reloaded on their next use
+        assertAll(
+                () -> verify(referenceDataCache).evictAll(),
+                () -> assertEquals("redirect:/sections", returnPath),
+                () -> assertTrue(redirectAttrs.getFlashAttributes().containsKey("sectionSuccessMessage"))
+        );
+    }
 }
@@ -0,0 +1,44 @@
+package com.adriannebulao.enlistment.controllers;
+
+import org.hibernate.cfg.*;
+import org.junit.jupiter.api.*;
+import org.springframework.mock.web.*;
+import org.springframework.web.servlet.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCounterTest {
+
+    private final StatementCounter statementCounter = new StatementCounter();
+
+    @Test
+    void counts_statements_of_each_request() {
+        // Given the counter is registered w/ Hibernate
+        Map<String, Object> hibernateProperties = new HashMap<>();
+        statementCounter.customize(hibernateProperties);
+        assertSame(statementCounter, hibernateProperties.get(AvailableSettings.STATEMENT_INSPECTOR));
+
+        // When two requests run statements
+        handle("/enlist", 3);
+        handle("/enlist", 2);
+
+        // Then the last count of the endpoint is kept, w/o the statements of earlier requests
+        assertAll(
+                () -> assertEquals(OptionalInt.of(2), statementCounter.getLastCount("GET /enlist")),
+                () -> assertEquals(OptionalInt.empty(), statementCounter.getLastCount("GET /sections"))
+        );
+    }
+
+    private void handle(String path, int numberOfStatements) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        statementCounter.preHandle(request, response, new Object());
+        for (int i = 0; i < numberOfStatements; i++) {
+            assertEquals("select 1", statementCounter.inspect("select 1"));
+        }
+        statementCounter.afterCompletion(request, response, new Object(), null);
+    }
+}
@@ -0,0 +1,45 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+
+import jakarta.persistence.*;
+
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AdvisoryLockSeatAllocatorTest {
+
+    private SectionRepository sectionRepository;
+    private EntityManager entityManager;
+    private AdvisoryLockSeatAllocator seatAllocator;
+    private final Student student = newDefaultStudent();
+
+    @BeforeEach
+    void setUp() {
+        sectionRepository = mock(SectionRepository.class);
+        entityManager = mock(EntityManager.class);
+        seatAllocator = new AdvisoryLockSeatAllocator(sectionRepository);
+        seatAllocator.setEntityManager(entityManager);
+    }
+
+    @Test
+    void reserve_changes_count_after_taking_lock() {
+        Section section = newDefaultSection();
+        seatAllocator.reserve(student, section);
+        InOrder inOrder = inOrder(sectionRepository, entityManager);
+        assertAll(
+                // take the section's advisory lock, then read the latest committed count
+                () -> inOrder.verify(sectionRepository).lockForSeatChange(DEFAULT_SECTION_ID),
+                () -> inOrder.verify(entityManager).refresh(section),
+                () -> assertEquals(1, section.getNumberOfStudents())
+        );
+    }
+
+    @Test
+    void reserve_section_at_capacity() {
+        Section section = new Section(DEFAULT_SECTION_ID, DEFAULT_SUBJECT, MTH830to10, new Room("X", 1), newFaculty(), 1);
+        assertThrows(CapacityException.class, () -> seatAllocator.reserve(student, section));
+    }
+}
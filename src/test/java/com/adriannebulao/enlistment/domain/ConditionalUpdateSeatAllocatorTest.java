@@ -0,0 +1,72 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.junit.jupiter.api.*;
+
+import jakarta.persistence.*;
+
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConditionalUpdateSeatAllocatorTest {
+
+    private SectionRepository sectionRepository;
+    private EntityManager entityManager;
+    private ConditionalUpdateSeatAllocator seatAllocator;
+    private final Section section = newDefaultSection();
+    private final Student student = newDefaultStudent();
+
+    @BeforeEach
+    void setUp() {
+        sectionRepository = mock(SectionRepository.class);
+        entityManager = mock(EntityManager.class);
+        when(entityManager.contains(section)).thenReturn(true);
+        seatAllocator = new ConditionalUpdateSeatAllocator(sectionRepository);
+        seatAllocator.setEntityManager(entityManager);
+    }
+
+    @Test
+    void reserve_seat_granted() {
+        // Given the conditional update finds a free seat
+        when(sectionRepository.reserveSeat(DEFAULT_SECTION_ID)).thenReturn(1);
+        // When a seat is reserved, then no exception is thrown
+        assertDoesNotThrow(() -> seatAllocator.reserve(student, section));
+    }
+
+    @Test
+    void reserve_section_full() {
+        // Given the conditional update finds the section at capacity
+        when(sectionRepository.reserveSeat(DEFAULT_SECTION_ID)).thenReturn(0);
+        // Then the reservation is refused
+        assertThrows(CapacityException.class, () -> seatAllocator.reserve(student, section));
+    }
+
+    @Test
+    void release_gives_back_seat() {
+        when(sectionRepository.releaseSeat(DEFAULT_SECTION_ID)).thenReturn(1);
+        assertTrue(seatAllocator.release(student, section));
+        verify(sectionRepository).releaseSeat(DEFAULT_SECTION_ID);
+    }
+
+    @Test
+    void release_at_zero_gives_back_nothing() {
+        when(sectionRepository.releaseSeat(DEFAULT_SECTION_ID)).thenReturn(0);
+        assertFalse(seatAllocator.release(student, section));
+    }
+
+    @Test
+    void reserve_refreshes_section_updated_behind_persistence_context() {
+        // Given the conditional update took a seat, bumping the row's count & version
+        when(sectionRepository.reserveSeat(DEFAULT_SECTION_ID)).thenReturn(1);
+        // When a seat is reserved, then the managed section is read back from its row
+        assertTrue(seatAllocator.tryReserve(student, section));
+        verify(entityManager).refresh(section);
+    }
+
+    @Test
+    void reserve_refused_leaves_section_as_is() {
+        when(sectionRepository.reserveSeat(DEFAULT_SECTION_ID)).thenReturn(0);
+        assertFalse(seatAllocator.tryReserve(student, section));
+        verify(entityManager, never()).refresh(any());
+    }
+}
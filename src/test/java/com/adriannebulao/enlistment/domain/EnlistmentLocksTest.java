@@ -0,0 +1,71 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnlistmentLocksTest {
+
+    @Test
+    void lock_sections_in_opposite_orders_concurrently() throws Exception {
+        // Given two sections, and few stripes so that keys collide
+        EnlistmentLocks locks = new EnlistmentLocks(4);
+        Section sec1 = new Section("A", new Subject("C"), MTH830to10, new Room("X", 10), newFaculty());
+        Section sec2 = new Section("B", new Subject("D"), TF830to10, new Room("Y", 10), newFaculty());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // When two students repeatedly lock both sections, listed in opposite orders
+            Future<?> first = executor.submit(() -> lockRepeatedly(locks, newStudent(1), List.of(sec1, sec2)));
+            Future<?> second = executor.submit(() -> lockRepeatedly(locks, newStudent(2), List.of(sec2, sec1)));
+            // Then both finish, since stripes are always acquired in the same order
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2000, locks.getAcquisitions());
+    }
+
+    private static void lockRepeatedly(EnlistmentLocks locks, Student student, List<Section> sections) {
+        for (int i = 0; i < 1000; i++) {
+            try (EnlistmentLocks.Held held = locks.lock(student, sections)) {
+                Thread.yield();
+            }
+        }
+    }
+
+    @Test
+    void lock_reports_wait_time() throws Exception {
+        // Given a section already locked by another student
+        EnlistmentLocks locks = new EnlistmentLocks(EnlistmentLocks.DEFAULT_STRIPES);
+        Section section = newDefaultSection();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try (EnlistmentLocks.Held held = locks.lock(newStudent(1), section)) {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        holder.start();
+        locked.await();
+        // When another student has to wait for it
+        Thread waiter = new Thread(() -> locks.lock(newStudent(2), section).close());
+        waiter.start();
+        Thread.sleep(100);
+        release.countDown();
+        waiter.join();
+        holder.join();
+        // Then the wait is reported
+        assertAll(
+                () -> assertEquals(1, locks.getContendedAcquisitions()),
+                () -> assertFalse(locks.getMaxWaitTime().isZero())
+        );
+    }
+}
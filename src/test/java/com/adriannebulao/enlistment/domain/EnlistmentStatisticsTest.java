@@ -0,0 +1,58 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.junit.jupiter.api.*;
+
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnlistmentStatisticsTest {
+
+    @Test
+    void refused_counts_by_reason() {
+        // Given fresh statistics
+        EnlistmentStatistics statistics = new EnlistmentStatistics();
+
+        // When enlistments are refused
+        statistics.refused(Eligibility.FULL);
+        statistics.refused(Eligibility.FULL);
+        statistics.refused(Eligibility.SAME_SUBJECT);
+
+        // Then each is counted under its reason
+        assertAll(
+                () -> assertEquals(2, statistics.getRefusals(Eligibility.FULL)),
+                () -> assertEquals(1, statistics.getRefusals(Eligibility.SAME_SUBJECT)),
+                () -> assertEquals(0, statistics.getRefusals(Eligibility.SCHEDULE_CONFLICT))
+        );
+    }
+
+    @Test
+    void refused_enlistable_is_not_a_refusal() {
+        EnlistmentStatistics statistics = new EnlistmentStatistics();
+        assertThrows(IllegalArgumentException.class, () -> statistics.refused(Eligibility.ENLISTABLE));
+    }
+
+    @Test
+    void enlist_records_phases_and_refusals() {
+        // Given a student enlisted in a section
+        EnlistmentStatistics statistics = EnlistmentStatistics.shared();
+        Section section = newDefaultSection();
+        Student student = newDefaultStudent();
+        student.enlist(section);
+        long conflictChecks = statistics.getCount(EnlistmentStatistics.Phase.CONFLICT_CHECK);
+        long prereqChecks = statistics.getCount(EnlistmentStatistics.Phase.PREREQ_CHECK);
+        long reserves = statistics.getCount(EnlistmentStatistics.Phase.SEAT_RESERVE);
+        long conflicts = statistics.getRefusals(Eligibility.SCHEDULE_CONFLICT);
+
+        // When the student enlists in another section at the same time
+        Section conflicting = new Section("Other", new Subject("otherSubject"), MTH830to10, new Room("Y", 10), newFaculty());
+        assertThrows(ScheduleConflictException.class, () -> student.enlist(conflicting));
+
+        // Then the conflict check is timed, the later phases aren't, and the refusal is counted
+        assertAll(
+                () -> assertEquals(conflictChecks + 1, statistics.getCount(EnlistmentStatistics.Phase.CONFLICT_CHECK)),
+                () -> assertEquals(prereqChecks, statistics.getCount(EnlistmentStatistics.Phase.PREREQ_CHECK)),
+                () -> assertEquals(reserves, statistics.getCount(EnlistmentStatistics.Phase.SEAT_RESERVE)),
+                () -> assertEquals(conflicts + 1, statistics.getRefusals(Eligibility.SCHEDULE_CONFLICT))
+        );
+    }
+}
@@ -0,0 +1,41 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.junit.jupiter.api.*;
+
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacultyTest {
+
+    @Test
+    void newFaculty_negative_faculty_number() {
+        assertThrows(IllegalArgumentException.class, () -> newFaculty(-1));
+    }
+
+    @Test
+    void newFaculty_blank_name() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> new Faculty(1, " ", "lastname")),
+                () -> assertThrows(NullPointerException.class, () -> new Faculty(1, "firstname", null))
+        );
+    }
+
+    @Test
+    void addSection_occupies_instructor_only_at_its_sked() {
+        Faculty instructor = newFaculty();
+        new Section("A", DEFAULT_SUBJECT, MTH830to10, new Room("X", 10), instructor);
+        assertAll(
+                () -> assertFalse(instructor.isFreeAt(MTH830to10)),
+                () -> assertTrue(instructor.isFreeAt(TF830to10)),
+                () -> assertTrue(instructor.isFreeAt(TF10to1130))
+        );
+    }
+
+    @Test
+    void faculty_equal_by_faculty_number() {
+        assertAll(
+                () -> assertEquals(newFaculty(1), newFaculty(1)),
+                () -> assertNotEquals(newFaculty(1), newFaculty(2))
+        );
+    }
+}
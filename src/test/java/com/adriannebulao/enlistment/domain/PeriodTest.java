@@ -13,50 +13,84 @@ class PeriodTest {
 
     @Test
     void newPeriod_valid_minute() {
-        assertDoesNotThrow(() -> new Period(LocalTime.of(8, 30), LocalTime.of(10, 0)));
+        assertDoesNotThrow(() -> Period.of(LocalTime.of(8, 30), LocalTime.of(10, 0)));
     }
 
     @Test
     void newPeriod_invalid_minute() {
         assertAll(
-                () -> assertThrows(InvalidTimeException.class, () -> new Period(LocalTime.of(9, 15), LocalTime.of(10, 0))),
-                () -> assertThrows(InvalidTimeException.class, () -> new Period(LocalTime.of(8, 30), LocalTime.of(10, 15)))
+                () -> assertThrows(InvalidTimeException.class, () -> Period.of(LocalTime.of(9, 15), LocalTime.of(10, 0))),
+                () -> assertThrows(InvalidTimeException.class, () -> Period.of(LocalTime.of(8, 30), LocalTime.of(10, 15)))
         );
     }
 
     private static Stream<Arguments> overlappingPeriods() {
         return Stream.of(
-                Arguments.of(new Period(LocalTime.of(8, 30), LocalTime.of(10, 0)),
-                        new Period(LocalTime.of(9, 0), LocalTime.of(11, 0))),
-                Arguments.of(new Period(LocalTime.of(8, 30), LocalTime.of(10, 0)),
-                        new Period(LocalTime.of(9, 0), LocalTime.of(9, 30))),
-                Arguments.of(new Period(LocalTime.of(9, 0), LocalTime.of(11, 0)),
-                        new Period(LocalTime.of(8, 30), LocalTime.of(10, 0))),
-                Arguments.of(new Period(LocalTime.of(9, 0), LocalTime.of(9, 30)),
-                        new Period(LocalTime.of(8, 30), LocalTime.of(10, 0))));
+                Arguments.of(Period.of(LocalTime.of(8, 30), LocalTime.of(10, 0)),
+                        Period.of(LocalTime.of(9, 0), LocalTime.of(11, 0))),
+                Arguments.of(Period.of(LocalTime.of(8, 30), LocalTime.of(10, 0)),
+                        Period.of(LocalTime.of(9, 0), LocalTime.of(9, 30))),
+                Arguments.of(Period.of(LocalTime.of(9, 0), LocalTime.of(11, 0)),
+                        Period.of(LocalTime.of(8, 30), LocalTime.of(10, 0))),
+                Arguments.of(Period.of(LocalTime.of(9, 0), LocalTime.of(9, 30)),
+                        Period.of(LocalTime.of(8, 30), LocalTime.of(10, 0))));
     }
 
     @ParameterizedTest
     @MethodSource("overlappingPeriods")
     void checkOverlap_overlapping(Period p1, Period p2) {
 		assertThrows(ScheduleConflictException.class, () -> p1.checkOverlap(p2));
+        assertTrue(p1.overlaps(p2));
     }
 
     private static Stream<Arguments> notOverlappingPeriods() {
         return Stream.of(
-                Arguments.of(new Period(LocalTime.of(8, 30), LocalTime.of(10, 0)),
-                        new Period(LocalTime.of(10, 0), LocalTime.of(11, 0))),
-                Arguments.of(new Period(LocalTime.of(9, 30), LocalTime.of(10, 0)),
-                        new Period(LocalTime.of(9, 0), LocalTime.of(9, 30))),
-                Arguments.of(new Period(LocalTime.of(9, 0), LocalTime.of(11, 0)),
-                        new Period(LocalTime.of(11, 30), LocalTime.of(13, 0))),
-                Arguments.of(new Period(LocalTime.of(9, 0), LocalTime.of(9, 30)),
-                        new Period(LocalTime.of(12, 30), LocalTime.of(13, 0))));
+                Arguments.of(Period.of(LocalTime.of(8, 30), LocalTime.of(10, 0)),
+                        Period.of(LocalTime.of(10, 0), LocalTime.of(11, 0))),
+                Arguments.of(Period.of(LocalTime.of(9, 30), LocalTime.of(10, 0)),
+                        Period.of(LocalTime.of(9, 0), LocalTime.of(9, 30))),
+                Arguments.of(Period.of(LocalTime.of(9, 0), LocalTime.of(11, 0)),
+                        Period.of(LocalTime.of(11, 30), LocalTime.of(13, 0))),
+                Arguments.of(Period.of(LocalTime.of(9, 0), LocalTime.of(9, 30)),
+                        Period.of(LocalTime.of(12, 30), LocalTime.of(13, 0))));
     }
 
     @ParameterizedTest
     @MethodSource("notOverlappingPeriods")
     void checkOverlap_not_overlapping(Period p1, Period p2) {
         assertDoesNotThrow(() -> p1.checkOverlap(p2));
+        assertFalse(p1.overlaps(p2));
+    }
+
+    @Test
+    void slotMask_covers_half_hour_slots_from_830am() {
+        assertAll(
+                () -> assertEquals(0b111, Period.of(LocalTime.of(8, 30), LocalTime.of(10, 0)).slotMask()),
+                () -> assertEquals(0b11000, Period.of(LocalTime.of(10, 0), LocalTime.of(11, 0)).slotMask()),
+                () -> assertEquals((1 << Period.SLOTS_PER_DAY) - 1,
+                        Period.of(LocalTime.of(8, 30), LocalTime.of(17, 30)).slotMask())
+        );
+    }
+
+    @Test
+    void of_returns_the_one_instance_of_each_period() {
+        Period period = Period.of(LocalTime.of(8, 30), LocalTime.of(10, 0));
+        assertAll(
+                () -> assertSame(period, Period.of(LocalTime.parse("08:30"), LocalTime.parse("10:00"))),
+                () -> assertSame(period, Period.ofOrdinal(period.ordinal())),
+                () -> assertNotEquals(period, Period.of(LocalTime.of(8, 30), LocalTime.of(9, 0)))
+        );
+    }
+
+    @Test
+    void ordinals_are_dense_in_order_of_start_then_end() {
+        assertAll(
+                () -> assertEquals(171, Period.COUNT),
+                () -> assertEquals(0, Period.of(LocalTime.of(8, 30), LocalTime.of(9, 0)).ordinal()),
+                () -> assertEquals(1, Period.of(LocalTime.of(8, 30), LocalTime.of(9, 30)).ordinal()),
+                () -> assertEquals(Period.SLOTS_PER_DAY, Period.of(LocalTime.of(9, 0), LocalTime.of(9, 30)).ordinal()),
+                () -> assertEquals(Period.COUNT - 1, Period.of(LocalTime.of(17, 0), LocalTime.of(17, 30)).ordinal()),
+                () -> assertThrows(IllegalArgumentException.class, () -> Period.ofOrdinal(Period.COUNT))
+        );
     }
 }
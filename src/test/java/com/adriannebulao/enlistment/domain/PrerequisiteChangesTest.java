@@ -0,0 +1,77 @@
+package com.adriannebulao.enlistment.domain;
+
+import jakarta.persistence.*;
+import org.hibernate.action.spi.*;
+import org.hibernate.engine.spi.*;
+import org.hibernate.event.service.spi.*;
+import org.hibernate.event.spi.*;
+import org.hibernate.service.spi.*;
+import org.junit.jupiter.api.*;
+
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PrerequisiteChangesTest {
+
+    private EventListenerRegistry listeners;
+    private PrerequisiteChanges prerequisiteChanges;
+
+    @BeforeEach
+    void setUp() {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+        ServiceRegistryImplementor serviceRegistry = mock(ServiceRegistryImplementor.class);
+        listeners = mock(EventListenerRegistry.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getServiceRegistry()).thenReturn(serviceRegistry);
+        when(serviceRegistry.getService(EventListenerRegistry.class)).thenReturn(listeners);
+        prerequisiteChanges = new PrerequisiteChanges(entityManagerFactory);
+    }
+
+    @Test
+    void listens_to_collection_changes() {
+        assertAll(
+                () -> verify(listeners).appendListeners(EventType.POST_COLLECTION_RECREATE, prerequisiteChanges),
+                () -> verify(listeners).appendListeners(EventType.POST_COLLECTION_UPDATE, prerequisiteChanges),
+                () -> verify(listeners).appendListeners(EventType.POST_COLLECTION_REMOVE, prerequisiteChanges)
+        );
+    }
+
+    @Test
+    void prerequisites_written_recompute_closures_on_flush_and_after_transaction() throws Exception {
+        // Given a loaded subject's closure computed
+        Subject math1 = loadedSubject("ChangedMath1");
+        Subject math2 = loadedSubject("ChangedMath2", math1);
+        long[] closure = math2.prerequisiteClosure();
+
+        // When the prerequisites of a subject are written in some persistence context
+        ActionQueue actionQueue = mock(ActionQueue.class);
+        EventSource session = mock(EventSource.class);
+        when(session.getActionQueue()).thenReturn(actionQueue);
+        PostCollectionUpdateEvent event = mock(PostCollectionUpdateEvent.class);
+        when(event.getAffectedOwnerOrNull()).thenReturn(math1);
+        when(event.getSession()).thenReturn(session);
+        prerequisiteChanges.onPostUpdateCollection(event);
+
+        // Then the closures are recomputed, & will be again once the transaction ends
+        assertNotSame(closure, math2.prerequisiteClosure());
+        verify(actionQueue).registerProcess(any(AfterTransactionCompletionProcess.class));
+    }
+
+    @Test
+    void other_collections_written_keep_closures() throws Exception {
+        // Given a loaded subject's closure computed
+        Subject math1 = loadedSubject("KeptMath1");
+        Subject math2 = loadedSubject("KeptMath2", math1);
+        long[] closure = math2.prerequisiteClosure();
+
+        // When the sections of a student are written
+        PostCollectionUpdateEvent event = mock(PostCollectionUpdateEvent.class);
+        when(event.getAffectedOwnerOrNull()).thenReturn(newDefaultStudent());
+        prerequisiteChanges.onPostUpdateCollection(event);
+
+        // Then the closures are kept
+        assertSame(closure, math2.prerequisiteClosure());
+    }
+}
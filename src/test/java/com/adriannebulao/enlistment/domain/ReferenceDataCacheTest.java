@@ -0,0 +1,65 @@
+package com.adriannebulao.enlistment.domain;
+
+import jakarta.persistence.*;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.*;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReferenceDataCacheTest {
+
+    private SessionFactory sessionFactory;
+    private SectionCatalog sectionCatalog;
+    private ReferenceDataCache referenceDataCache;
+
+    @BeforeEach
+    void setUp() {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        sessionFactory = mock(SessionFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        sectionCatalog = mock(SectionCatalog.class);
+        referenceDataCache = new ReferenceDataCache(entityManagerFactory, sectionCatalog);
+    }
+
+    @Test
+    void evictAll_evicts_reference_data_and_section_catalog() {
+        Cache cache = mock(Cache.class);
+        when(sessionFactory.getCache()).thenReturn(cache);
+
+        referenceDataCache.evictAll();
+
+        assertAll(
+                () -> verify(cache).evictEntityData(Subject.class),
+                () -> verify(cache).evictCollectionData(Subject.class.getName() + ".prerequisites"),
+                () -> verify(cache).evictEntityData(Room.class),
+                () -> verify(cache).evictQueryRegions(),
+                () -> verify(sectionCatalog).invalidate()
+        );
+    }
+
+    @Test
+    void getStatistics_by_region_and_of_query_results() {
+        // Given the subjects region was hit twice & missed once, and a query was put once
+        Statistics statistics = mock(Statistics.class);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        String subjects = Subject.class.getName();
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{subjects});
+        CacheRegionStatistics region = mock(CacheRegionStatistics.class);
+        when(region.getHitCount()).thenReturn(2L);
+        when(region.getMissCount()).thenReturn(1L);
+        when(region.getPutCount()).thenReturn(1L);
+        when(statistics.getDomainDataRegionStatistics(subjects)).thenReturn(region);
+        when(statistics.getQueryCachePutCount()).thenReturn(1L);
+
+        // When the statistics are read, then they are reported per region
+        assertEquals(Map.of(
+                        subjects, new ReferenceDataCache.RegionStatistics(2, 1, 1),
+                        ReferenceDataCache.QUERY_RESULTS, new ReferenceDataCache.RegionStatistics(0, 0, 1)),
+                referenceDataCache.getStatistics());
+    }
+}
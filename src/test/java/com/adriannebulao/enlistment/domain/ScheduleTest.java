@@ -0,0 +1,56 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.hibernate.metamodel.spi.*;
+import org.junit.jupiter.api.*;
+
+import java.time.*;
+
+import static com.adriannebulao.enlistment.domain.Days.*;
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ScheduleTest {
+
+    @Test
+    void of_returns_the_one_instance_of_each_schedule() {
+        Period period = Period.of(LocalTime.of(8, 30), LocalTime.of(10, 0));
+        assertAll(
+                () -> assertSame(MTH830to10, Schedule.of(MTH, period)),
+                () -> assertSame(TF830to10, Schedule.ofOrdinal(TF830to10.ordinal())),
+                () -> assertNotEquals(MTH830to10, TF830to10),
+                () -> assertEquals(3 * Period.COUNT, Schedule.COUNT),
+                () -> assertEquals(Period.COUNT + period.ordinal(), TF830to10.ordinal())
+        );
+    }
+
+    @Test
+    void overlaps_only_on_the_same_days() {
+        Schedule mth9to11 = Schedule.of(MTH, Period.of(LocalTime.of(9, 0), LocalTime.of(11, 0)));
+        assertAll(
+                () -> assertTrue(MTH830to10.overlaps(mth9to11)),
+                () -> assertFalse(TF830to10.overlaps(mth9to11)),
+                () -> assertFalse(TF830to10.overlaps(TF10to1130))
+        );
+    }
+
+    @Test
+    void scheduleType_maps_the_columns_onto_the_interned_schedule() {
+        // Given the columns of a section, in the alphabetical order Hibernate numbers them in
+        ScheduleType type = new ScheduleType();
+        ValueAccess values = mock(ValueAccess.class);
+        when(values.getValue(0, Days.class)).thenReturn(TF);
+        when(values.getValue(1, LocalTime.class)).thenReturn(LocalTime.of(11, 30));
+        when(values.getValue(2, LocalTime.class)).thenReturn(LocalTime.of(10, 0));
+
+        // When they are read, then the one schedule they make is returned, & written back to the same columns
+        Schedule schedule = type.instantiate(values, null);
+        assertAll(
+                () -> assertSame(TF10to1130, schedule),
+                () -> assertEquals(TF, type.getPropertyValue(schedule, 0)),
+                () -> assertEquals(LocalTime.of(11, 30), type.getPropertyValue(schedule, 1)),
+                () -> assertEquals(LocalTime.of(10, 0), type.getPropertyValue(schedule, 2)),
+                () -> assertSame(schedule, type.assemble(type.disassemble(schedule), null))
+        );
+    }
+}
@@ -0,0 +1,88 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.junit.jupiter.api.*;
+import org.springframework.context.*;
+
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SeatInventoryTest {
+
+    private SeatRepository seatRepository;
+    private SeatAllocator seatCounter;
+    private ApplicationEventPublisher eventPublisher;
+    private SeatInventory seatInventory;
+    private final Student student = newDefaultStudent();
+
+    @BeforeEach
+    void setUp() {
+        seatRepository = mock(SeatRepository.class);
+        seatCounter = mock(SeatAllocator.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        seatInventory = new SeatInventory(seatRepository, seatCounter, eventPublisher);
+    }
+
+    @Test
+    void reserve_section_without_inventory_is_counted() {
+        Section section = newDefaultSection();
+        when(seatCounter.tryReserve(student, section)).thenReturn(true);
+        seatInventory.reserve(student, section);
+        assertAll(
+                () -> verify(seatCounter).tryReserve(student, section),
+                () -> verifyNoInteractions(seatRepository),
+                () -> verify(eventPublisher).publishEvent(new SectionCatalog.SeatsChanged(DEFAULT_SECTION_ID, 1))
+        );
+    }
+
+    @Test
+    void reserve_section_with_inventory_claims_seat() {
+        // Given a section switched over to a seat inventory
+        Section section = newDefaultSection();
+        seatInventory.enableFor(section);
+        when(seatRepository.claimSeat(DEFAULT_SECTION_ID, DEFAULT_STUDENT_NUMBER)).thenReturn(1);
+        // When a seat is reserved
+        seatInventory.reserve(student, section);
+        // Then a seat row is claimed instead of the section being counted
+        assertAll(
+                () -> verify(seatRepository).createSeats(DEFAULT_SECTION_ID, section.getRoom().getCapacity()),
+                () -> verify(seatRepository).claimSeat(DEFAULT_SECTION_ID, DEFAULT_STUDENT_NUMBER),
+                () -> verifyNoInteractions(seatCounter)
+        );
+    }
+
+    @Test
+    void reserve_section_with_inventory_no_free_seat() {
+        Section section = newDefaultSection();
+        seatInventory.enableFor(section);
+        when(seatRepository.claimSeat(DEFAULT_SECTION_ID, DEFAULT_STUDENT_NUMBER)).thenReturn(0);
+        assertThrows(CapacityException.class, () -> seatInventory.reserve(student, section));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void release_publishes_seat_given_back() {
+        Section section = newDefaultSection();
+        when(seatCounter.release(student, section)).thenReturn(true);
+        assertTrue(seatInventory.release(student, section));
+        verify(eventPublisher).publishEvent(new SectionCatalog.SeatsChanged(DEFAULT_SECTION_ID, -1));
+    }
+
+    @Test
+    void release_wo_seat_to_give_back_publishes_nothing() {
+        // Given a section w/ an inventory in which the student holds no seat
+        Section section = newDefaultSection();
+        seatInventory.enableFor(section);
+        when(seatRepository.releaseSeat(DEFAULT_SECTION_ID, DEFAULT_STUDENT_NUMBER)).thenReturn(0);
+        // When the seat is released, then nothing was given back, so nobody is told of it
+        assertFalse(seatInventory.release(student, section));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void enableFor_section_already_with_inventory() {
+        Section section = newDefaultSection();
+        seatInventory.enableFor(section);
+        assertThrows(IllegalArgumentException.class, () -> seatInventory.enableFor(section));
+    }
+}
@@ -0,0 +1,152 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.junit.jupiter.api.*;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.*;
+import org.springframework.transaction.*;
+
+import java.time.*;
+import java.util.*;
+
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SectionCatalogTest {
+
+    private SectionRepository sectionRepository;
+    private SeatInventory seatInventory;
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final Section section = newDefaultSection();
+
+    @BeforeEach
+    void setUp() {
+        sectionRepository = mock(SectionRepository.class);
+        when(sectionRepository.count()).thenReturn(1L);
+        when(sectionRepository.findAll()).thenReturn(List.of(section));
+        seatInventory = mock(SeatInventory.class);
+        when(seatInventory.countStudents(section)).thenReturn(3);
+    }
+
+    @Test
+    void getSections_loaded_once() {
+        // Given a catalog that doesn't expire soon
+        SectionCatalog catalog = new SectionCatalog(sectionRepository, seatInventory, transactionManager, Duration.ofHours(1), 100);
+
+        // When the sections are listed many times
+        catalog.getSections();
+        Collection<SectionSummary> sections = catalog.getSections();
+
+        // Then the database is read only once
+        SectionSummary summary = sections.iterator().next();
+        assertAll(
+                () -> verify(sectionRepository, times(1)).findAll(),
+                () -> assertEquals(DEFAULT_SECTION_ID, summary.getSectionId()),
+                () -> assertEquals(3, summary.getNumberOfStudents()),
+                () -> assertEquals(10, summary.getCapacity())
+        );
+    }
+
+    @Test
+    void getSections_after_seats_and_sections_change() {
+        // Given a loaded catalog
+        SectionCatalog catalog = new SectionCatalog(sectionRepository, seatInventory, transactionManager, Duration.ofHours(1), 100);
+        catalog.getSections();
+
+        // When seats are taken & given back and a section is created
+        catalog.onSeatsChanged(new SectionCatalog.SeatsChanged(DEFAULT_SECTION_ID, 1));
+        catalog.onSeatsChanged(new SectionCatalog.SeatsChanged(DEFAULT_SECTION_ID, 1));
+        catalog.onSeatsChanged(new SectionCatalog.SeatsChanged(DEFAULT_SECTION_ID, -1));
+        Section newSection = new Section("A1", DEFAULT_SUBJECT, TF830to10, new Room("Y", 5), newFaculty());
+        catalog.onSectionCreated(new SectionCatalog.SectionCreated(newSection));
+
+        // Then the catalog reflects the changes, w/o reloading
+        List<SectionSummary> sections = new ArrayList<>(catalog.getSections());
+        assertAll(
+                () -> verify(sectionRepository, times(1)).findAll(),
+                () -> assertEquals(List.of("A1", DEFAULT_SECTION_ID),
+                        sections.stream().map(SectionSummary::getSectionId).toList()),
+                () -> assertEquals(0, sections.get(0).getNumberOfStudents()),
+                () -> assertEquals(4, sections.get(1).getNumberOfStudents())
+        );
+    }
+
+    @Test
+    void getSections_reads_again_sections_changed_while_loading() {
+        // Given a seat taken while the catalog loads, which the load may or may not have read
+        SectionCatalog catalog = new SectionCatalog(sectionRepository, seatInventory, transactionManager, Duration.ofHours(1), 100);
+        when(sectionRepository.findAll()).thenAnswer(invocation -> {
+            catalog.onSeatsChanged(new SectionCatalog.SeatsChanged(DEFAULT_SECTION_ID, 1));
+            return List.of(section);
+        });
+        when(sectionRepository.findAllById(anyIterable())).thenReturn(List.of(section));
+        when(seatInventory.countStudents(section)).thenReturn(3, 4);
+
+        // When the sections are listed
+        Collection<SectionSummary> sections = catalog.getSections();
+
+        // Then the changed section is read again, rather than the change being lost or counted twice
+        assertAll(
+                () -> assertEquals(4, sections.iterator().next().getNumberOfStudents()),
+                () -> verify(sectionRepository, times(1)).findAll(),
+                () -> verify(sectionRepository, times(1)).findAllById(anyIterable())
+        );
+    }
+
+    @Test
+    void getSections_expired() {
+        SectionCatalog catalog = new SectionCatalog(sectionRepository, seatInventory, transactionManager, Duration.ZERO, 100);
+        catalog.getSections();
+        catalog.getSections();
+        verify(sectionRepository, times(2)).findAll();
+    }
+
+    @Test
+    void getSections_more_than_maximum_size() {
+        // Given more sections than the catalog may keep
+        when(sectionRepository.count()).thenReturn(101L);
+        SectionCatalog catalog = new SectionCatalog(sectionRepository, seatInventory, transactionManager, Duration.ofHours(1), 100);
+
+        // When the sections are listed many times, then each listing reads the database
+        assertEquals(1, catalog.getSections().size());
+        assertEquals(1, catalog.getSections().size());
+        verify(sectionRepository, times(2)).findAll();
+    }
+
+    @Test
+    void getKeptSections_never_loads() {
+        // Given a catalog not loaded yet, then one too big to keep
+        SectionCatalog catalog = new SectionCatalog(sectionRepository, seatInventory, transactionManager, Duration.ofHours(1), 100);
+        assertEquals(Optional.empty(), catalog.getKeptSections());
+        catalog.getSections();
+        assertEquals(1, catalog.getKeptSections().orElseThrow().size());
+        when(sectionRepository.count()).thenReturn(101L);
+        catalog.invalidate();
+        catalog.getSections();
+
+        // Then the sections kept are only ever those already in memory
+        assertAll(
+                () -> assertEquals(Optional.empty(), catalog.getKeptSections()),
+                () -> verify(sectionRepository, times(2)).findAll()
+        );
+    }
+
+    @Test
+    void getSections_one_page_filtered_in_memory() {
+        // Given a loaded catalog w/ a second section
+        SectionCatalog catalog = new SectionCatalog(sectionRepository, seatInventory, transactionManager, Duration.ofHours(1), 100);
+        catalog.getSections();
+        catalog.onSectionCreated(new SectionCatalog.SectionCreated(
+                new Section("A1", DEFAULT_SUBJECT, TF830to10, new Room("Y", 5), newFaculty())));
+
+        // When one page of the sections on TF is listed
+        Page<SectionSummary> page = catalog.getSections(SectionFilter.all().onDays(Days.TF), PageRequest.of(0, 1));
+
+        // Then only the matching section is on it, w/o querying the database
+        assertAll(
+                () -> assertEquals(List.of("A1"), page.map(SectionSummary::getSectionId).getContent()),
+                () -> assertEquals(1, page.getTotalElements()),
+                () -> verify(sectionRepository, never()).findAll(any(Specification.class), any(Pageable.class))
+        );
+    }
+}
@@ -0,0 +1,58 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.junit.jupiter.api.*;
+
+import java.time.*;
+import java.util.*;
+
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SectionFilterTest {
+
+    private final Section morning = new Section("A1", DEFAULT_SUBJECT, MTH830to10, new Room("X", 1), newFaculty());
+    private final Section afternoon = new Section("A2", new Subject("other"),
+            Schedule.of(Days.MTH, Period.of(LocalTime.of(13, 0), LocalTime.of(14, 30))), new Room("Y", 10), newFaculty());
+    private final SectionSummary fullMorning = new SectionSummary(morning, 1);
+    private final SectionSummary openAfternoon = new SectionSummary(afternoon, 0);
+
+    @Test
+    void all_matches_every_section() {
+        assertAll(
+                () -> assertTrue(SectionFilter.all().test(fullMorning)),
+                () -> assertTrue(SectionFilter.all().test(openAfternoon))
+        );
+    }
+
+    @Test
+    void criteria_left_out_are_ignored() {
+        SectionFilter filter = SectionFilter.all().onDays(null).startingFrom(null).endingBy(null)
+                .ofSubject("").inRoom(null).notEnlistedBy(null);
+        assertTrue(filter.test(fullMorning));
+    }
+
+    @Test
+    void filter_by_each_criterion() {
+        assertAll(
+                () -> assertFalse(SectionFilter.all().onDays(Days.TF).test(fullMorning)),
+                () -> assertFalse(SectionFilter.all().startingFrom(LocalTime.of(12, 0)).test(fullMorning)),
+                () -> assertTrue(SectionFilter.all().startingFrom(LocalTime.of(12, 0)).test(openAfternoon)),
+                () -> assertTrue(SectionFilter.all().endingBy(LocalTime.of(10, 0)).test(fullMorning)),
+                () -> assertFalse(SectionFilter.all().endingBy(LocalTime.of(10, 0)).test(openAfternoon)),
+                () -> assertFalse(SectionFilter.all().ofSubject(DEFAULT_SUBJECT_ID).test(openAfternoon)),
+                () -> assertFalse(SectionFilter.all().inRoom("X").test(openAfternoon)),
+                () -> assertFalse(SectionFilter.all().withOpenSeats(true).test(fullMorning)),
+                () -> assertTrue(SectionFilter.all().withOpenSeats(true).test(openAfternoon))
+        );
+    }
+
+    @Test
+    void filter_out_sections_enlisted_by_student() {
+        Student student = newStudent(DEFAULT_STUDENT_NUMBER, List.of(morning));
+        SectionFilter filter = SectionFilter.all().notEnlistedBy(student);
+        assertAll(
+                () -> assertFalse(filter.test(fullMorning)),
+                () -> assertTrue(filter.test(openAfternoon))
+        );
+    }
+}
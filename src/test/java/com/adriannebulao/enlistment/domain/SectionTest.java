@@ -2,6 +2,8 @@ package com.adriannebulao.enlistment.domain;
 
 import org.junit.jupiter.api.*;
 
+import java.time.*;
+
 import static com.adriannebulao.enlistment.domain.TestUtils.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -10,15 +12,49 @@ class SectionTest {
     @Test
     void newSection_same_room_diff_sked() {
         Room room = new Room("X", 10);
-        new Section("A", DEFAULT_SUBJECT, MTH830to10, room);
-        assertDoesNotThrow(() -> new Section("B", DEFAULT_SUBJECT, TF10to1130, room));
+        new Section("A", DEFAULT_SUBJECT, MTH830to10, room, newFaculty());
+        assertDoesNotThrow(() -> new Section("B", DEFAULT_SUBJECT, TF10to1130, room, newFaculty()));
     }
 
     @Test
     void newSection_same_room_same_sked() {
         Room room = new Room("X", 10);
-        new Section("A", DEFAULT_SUBJECT, MTH830to10, room);
-        assertThrows(ScheduleConflictException.class, () -> new Section("B", DEFAULT_SUBJECT, MTH830to10, room));
+        new Section("A", DEFAULT_SUBJECT, MTH830to10, room, newFaculty());
+        assertThrows(ScheduleConflictException.class, () -> new Section("B", DEFAULT_SUBJECT, MTH830to10, room, newFaculty()));
+    }
+
+    @Test
+    void newSection_occupies_room_only_at_its_sked() {
+        Room room = new Room("X", 10);
+        new Section("A", DEFAULT_SUBJECT, MTH830to10, room, newFaculty());
+        assertAll(
+                () -> assertFalse(room.isFreeAt(MTH830to10)),
+                () -> assertTrue(room.isFreeAt(TF830to10)),
+                () -> assertTrue(room.isFreeAt(TF10to1130))
+        );
+    }
+
+    @Test
+    void newSection_same_instructor_diff_sked() {
+        Faculty instructor = newFaculty();
+        new Section("A", DEFAULT_SUBJECT, MTH830to10, new Room("X", 10), instructor);
+        assertDoesNotThrow(() -> new Section("B", DEFAULT_SUBJECT, TF830to10, new Room("Y", 10), instructor));
+    }
+
+    @Test
+    void newSection_same_instructor_overlapping_sked() {
+        // Given an instructor teaching a section
+        Faculty instructor = newFaculty();
+        new Section("A", DEFAULT_SUBJECT, MTH830to10, new Room("X", 10), instructor);
+        Room room = new Room("Y", 10);
+        Schedule mth9to11 = Schedule.of(Days.MTH, Period.of(LocalTime.of(9, 0), LocalTime.of(11, 0)));
+        // When another section overlapping it is given the same instructor
+        // Then it is refused, w/o taking up the slots of its room
+        assertAll(
+                () -> assertThrows(ScheduleConflictException.class, () -> new Section("B", DEFAULT_SUBJECT, mth9to11, room, instructor)),
+                () -> assertTrue(room.isFreeAt(mth9to11)),
+                () -> assertFalse(instructor.isFreeAt(mth9to11))
+        );
     }
 
 }
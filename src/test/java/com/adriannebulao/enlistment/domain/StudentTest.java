@@ -12,14 +12,14 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class StudentTest {
 
-    private final static Period H0830 = new Period(LocalTime.of(8, 30), LocalTime.of(10, 0));
+    private final static Period H0830 = Period.of(LocalTime.of(8, 30), LocalTime.of(10, 0));
 
     @Test
     void enlist_two_sections_no_conflict() {
         // Given a student and two sections
         Student student = newDefaultStudent();
-        Section sec1 = new Section("A", new Subject("C"), MTH830to10, new Room("X", 10));
-        Section sec2 = new Section("B", new Subject("D"), TF10to1130, new Room("Y", 10));
+        Section sec1 = new Section("A", new Subject("C"), MTH830to10, new Room("X", 10), newFaculty());
+        Section sec2 = new Section("B", new Subject("D"), TF10to1130, new Room("Y", 10), newFaculty());
         // When the student enlists in both sections
         student.enlist(sec1);
         student.enlist(sec2);
@@ -35,14 +35,38 @@ class StudentTest {
     void enlist_two_sections_same_schedule() {
         // Given a student & two sections w/ same sked
         Student student = newDefaultStudent();
-        Section sec1 = new Section("A", new Subject("C"), MTH830to10, new Room("X", 10));
-        Section sec2 = new Section("B", new Subject("D"), MTH830to10, new Room("Y", 10));
+        Section sec1 = new Section("A", new Subject("C"), MTH830to10, new Room("X", 10), newFaculty());
+        Section sec2 = new Section("B", new Subject("D"), MTH830to10, new Room("Y", 10), newFaculty());
         // When the student enlists in both sections
         student.enlist(sec1);
         // Then an exception should be thrown on the second enlistment
         assertThrows(ScheduleConflictException.class, () -> student.enlist(sec2));
     }
 
+    @Test
+    void enlist_same_period_on_different_days() {
+        // Given a student & two sections w/ same period on different days
+        Student student = newDefaultStudent();
+        Section sec1 = new Section("A", new Subject("C"), MTH830to10, new Room("X", 10), newFaculty());
+        Section sec2 = new Section("B", new Subject("D"), TF830to10, new Room("Y", 10), newFaculty());
+        // When the student enlists in both sections
+        student.enlist(sec1);
+        // Then no exception should be thrown
+        assertDoesNotThrow(() -> student.enlist(sec2));
+    }
+
+    @Test
+    void enlist_in_schedule_freed_by_cancel() {
+        // Given a student enlisted in a section, and another section w/ the same sked
+        Section sec1 = new Section("A", new Subject("C"), MTH830to10, new Room("X", 10), newFaculty());
+        Section sec2 = new Section("B", new Subject("D"), MTH830to10, new Room("Y", 10), newFaculty());
+        Student student = newStudent(1, List.of(sec1));
+        // When the student cancels the enlisted section
+        student.cancel(sec1);
+        // Then the student can enlist in the other section
+        assertDoesNotThrow(() -> student.enlist(sec2));
+    }
+
     @Test
     void enlist_within_room_capacity() {
         // Given two students and one section with room capacity 5
@@ -50,7 +74,7 @@ class StudentTest {
         Student student2 = newStudent(2);
         final int CAPACITY = 5;
         Room room =  new Room("X", CAPACITY);
-        Section section = new Section(DEFAULT_SECTION_ID, DEFAULT_SUBJECT, MTH830to10, room);
+        Section section = new Section(DEFAULT_SECTION_ID, DEFAULT_SUBJECT, MTH830to10, room, newFaculty());
         // When the two students enlist in the section
         student1.enlist(section);
         student2.enlist(section);
@@ -65,7 +89,7 @@ class StudentTest {
         Student student2 = newStudent(2);
         final int CAPACITY = 1;
         Room room =  new Room("X", CAPACITY);
-        Section section = new Section(DEFAULT_SECTION_ID, DEFAULT_SUBJECT, MTH830to10, room);
+        Section section = new Section(DEFAULT_SECTION_ID, DEFAULT_SUBJECT, MTH830to10, room, newFaculty());
         // When the two students enlist in the section
         student1.enlist(section);
         // Then an exception should be thrown at 2nd enlistment
@@ -77,8 +101,8 @@ class StudentTest {
         // Given 2 sections that share same room w/ capacity 1, and 2 students
         final int CAPACITY = 1;
         Room room = new Room("X", CAPACITY);
-        Section sec1 = new Section("A", new Subject("C"), MTH830to10, room);
-        Section sec2 = new Section("B", new Subject("C"), TF830to10, room);
+        Section sec1 = new Section("A", new Subject("C"), MTH830to10, room, newFaculty());
+        Section sec2 = new Section("B", new Subject("C"), TF830to10, room, newFaculty());
         Student student1 = newStudent(1);
         Student student2 = newStudent(2);
         // When each student enlists in a different section
@@ -96,7 +120,7 @@ class StudentTest {
             Student student3 = newStudent(3);
             Student student4 = newStudent(4);
             Student student5 = newStudent(5);
-            Section section = new Section(DEFAULT_SECTION_ID, DEFAULT_SUBJECT, MTH830to10, new Room("Y", 1));
+            Section section = new Section(DEFAULT_SECTION_ID, DEFAULT_SUBJECT, MTH830to10, new Room("Y", 1), newFaculty());
             // When they enlist concurrently
             CountDownLatch latch = new CountDownLatch(1);
             new EnslistmentThread(student1, section, latch).start();
@@ -141,9 +165,9 @@ class StudentTest {
     void cancel_enlisted_section() {
         // Given a student that has sections, which have students
         final int INITIAL_NUMBER_OF_STUDENTS = 5;
-        Section sec1 = new Section("A", new Subject("D"), MTH830to10, new Room("X", 10), INITIAL_NUMBER_OF_STUDENTS);
-        Section sec2 = new Section("B", new Subject("E"), TF830to10, new Room("Y", 10), INITIAL_NUMBER_OF_STUDENTS);
-        Section sectionToBeCanceled = new Section("C", new Subject("F"), new Schedule(WS, H0830), new Room("Z", 10), INITIAL_NUMBER_OF_STUDENTS);
+        Section sec1 = new Section("A", new Subject("D"), MTH830to10, new Room("X", 10), newFaculty(), INITIAL_NUMBER_OF_STUDENTS);
+        Section sec2 = new Section("B", new Subject("E"), TF830to10, new Room("Y", 10), newFaculty(), INITIAL_NUMBER_OF_STUDENTS);
+        Section sectionToBeCanceled = new Section("C", new Subject("F"), Schedule.of(WS, H0830), new Room("Z", 10), newFaculty(), INITIAL_NUMBER_OF_STUDENTS);
         Student student = newStudent(1, List.of(sec1, sec2, sectionToBeCanceled));
         // When the student cancels one section
         student.cancel(sectionToBeCanceled);
@@ -162,9 +186,9 @@ class StudentTest {
     void cancel_nonenlisted_section() {
         // Given a student that has sections, which have students, and one section that the student hasn't enlisted in
         final int INITIAL_NUMBER_OF_STUDENTS = 5;
-        Section sec1 = new Section("A", new Subject("D"), MTH830to10, new Room("X", 10), INITIAL_NUMBER_OF_STUDENTS);
-        Section sec2 = new Section("B", new Subject("E"), TF830to10, new Room("Y", 10), INITIAL_NUMBER_OF_STUDENTS);
-        Section sectionToBeCanceled = new Section("C", new Subject("F"), new Schedule(WS, H0830), new Room("Z", 10), INITIAL_NUMBER_OF_STUDENTS);
+        Section sec1 = new Section("A", new Subject("D"), MTH830to10, new Room("X", 10), newFaculty(), INITIAL_NUMBER_OF_STUDENTS);
+        Section sec2 = new Section("B", new Subject("E"), TF830to10, new Room("Y", 10), newFaculty(), INITIAL_NUMBER_OF_STUDENTS);
+        Section sectionToBeCanceled = new Section("C", new Subject("F"), Schedule.of(WS, H0830), new Room("Z", 10), newFaculty(), INITIAL_NUMBER_OF_STUDENTS);
         Student student = newStudent(1, List.of(sec1, sec2));
         // When a student cancels a section that the student hasn't enlisted in
         student.cancel(sectionToBeCanceled);
@@ -183,8 +207,8 @@ class StudentTest {
     void enlist_two_sections_same_subject() {
         // Given student & 2 sections same subject
         Student student = newDefaultStudent();
-        Section sec1 = new Section("A", new Subject("C"), MTH830to10, new Room("X", 10));
-        Section sec2 = new Section("B", new Subject("C"), TF830to10, new Room("Y", 10));
+        Section sec1 = new Section("A", new Subject("C"), MTH830to10, new Room("X", 10), newFaculty());
+        Section sec2 = new Section("B", new Subject("C"), TF830to10, new Room("Y", 10), newFaculty());
         // When student enlists in both
         student.enlist(sec1);
         // Then exception should be thrown in 2nd
@@ -200,7 +224,7 @@ class StudentTest {
         Subject otherSubject = new Subject("otherSubject");
         List<Subject> subjectsTaken = List.of(prereq1, prereq2, otherSubject);
         Student student = newStudent(1, Collections.emptyList(), subjectsTaken);
-        Section section = new Section(DEFAULT_SECTION_ID, subject, MTH830to10, new Room("room", 10));
+        Section section = new Section(DEFAULT_SECTION_ID, subject, MTH830to10, new Room("room", 10), newFaculty());
         // When student enlists
         student.enlist(section);
         // Then enlistment is successful
@@ -221,11 +245,124 @@ class StudentTest {
         Subject otherSubject = new Subject("otherSubject");
         List<Subject> subjectsTaken = List.of(prereq1, prereq2, otherSubject);
         Student student = newStudent(1, Collections.emptyList(), subjectsTaken);
-        Section section = new Section(DEFAULT_SECTION_ID, subject, MTH830to10, new Room("room", 10));
+        Section section = new Section(DEFAULT_SECTION_ID, subject, MTH830to10, new Room("room", 10), newFaculty());
         // When student enlists
         // Then exception thrown
         assertThrows(PrereqMissingException.class, () -> student.enlist(section));
     }
 
+    @Test
+    void tryEnlist_refused_section_returns_the_reason_wo_changing_anything() {
+        // Given a student enlisted in a section, and a full section at the same time
+        Student student = newDefaultStudent();
+        Section sec1 = new Section("A", new Subject("C"), MTH830to10, new Room("X", 10), newFaculty());
+        Section sec2 = new Section("B", new Subject("D"), MTH830to10, new Room("Y", 10), newFaculty());
+        Section fullSection = new Section("F", new Subject("E"), TF830to10, new Room("Z", 1), newFaculty(), 1);
+        student.enlist(sec1);
+        // When the student tries to enlist in them
+        Eligibility conflict = student.tryEnlist(sec2, SeatAllocator.IN_MEMORY);
+        Eligibility full = student.tryEnlist(fullSection, SeatAllocator.IN_MEMORY);
+        // Then each is refused for its reason, w/o enlisting or taking a seat
+        assertAll(
+                () -> assertEquals(Eligibility.SCHEDULE_CONFLICT, conflict),
+                () -> assertEquals(Eligibility.FULL, full),
+                () -> assertEquals(List.of(sec1), List.copyOf(student.getSections())),
+                () -> assertEquals(0, sec2.getNumberOfStudents()),
+                () -> assertEquals(1, fullSection.getNumberOfStudents())
+        );
+    }
+
+    @Test
+    void refusal_names_the_enlisted_section_in_conflict() {
+        // Given a student enlisted in a section, refused another at the same time
+        Student student = newDefaultStudent();
+        Section sec1 = new Section("A", new Subject("C"), MTH830to10, new Room("X", 10), newFaculty());
+        Section sec2 = new Section("B", new Subject("D"), MTH830to10, new Room("Y", 10), newFaculty());
+        student.enlist(sec1);
+        Eligibility result = student.tryEnlist(sec2, SeatAllocator.IN_MEMORY);
+        // When the refusal is asked for
+        EnlistmentException refusal = student.refusal(result, sec2);
+        // Then it is the exception enlist throws, naming both sections
+        assertAll(
+                () -> assertInstanceOf(ScheduleConflictException.class, refusal),
+                () -> assertTrue(refusal.getMessage().contains("this section B")),
+                () -> assertTrue(refusal.getMessage().contains("enlisted section A")),
+                () -> assertThrows(IllegalArgumentException.class, () -> student.refusal(Eligibility.ENLISTABLE, sec2))
+        );
+    }
+
+    @Test
+    void enlistAll_sections_no_conflict() {
+        // Given a student and three sections w/o conflicts
+        Student student = newDefaultStudent();
+        Section sec1 = new Section("A", new Subject("C"), MTH830to10, new Room("X", 10), newFaculty());
+        Section sec2 = new Section("B", new Subject("D"), TF830to10, new Room("Y", 10), newFaculty());
+        Section sec3 = new Section("C", new Subject("E"), TF10to1130, new Room("Z", 10), newFaculty());
+        // When the student enlists in all of them at once
+        Map<Section, Eligibility> refusals = student.enlistAll(List.of(sec3, sec1, sec2), SeatAllocator.IN_MEMORY);
+        // Then the student is enlisted in all of them
+        assertAll(
+                () -> assertTrue(refusals.isEmpty()),
+                () -> assertTrue(student.getSections().containsAll(List.of(sec1, sec2, sec3))),
+                () -> assertEquals(1, sec3.getNumberOfStudents())
+        );
+    }
+
+    @Test
+    void enlistAll_sections_conflicting_with_each_other() {
+        // Given a student and sections where two have the same sked
+        Student student = newDefaultStudent();
+        Section sec1 = new Section("A", new Subject("C"), MTH830to10, new Room("X", 10), newFaculty());
+        Section sec2 = new Section("B", new Subject("D"), MTH830to10, new Room("Y", 10), newFaculty());
+        Section sec3 = new Section("C", new Subject("E"), TF10to1130, new Room("Z", 10), newFaculty());
+        // When the student enlists in all of them at once
+        Map<Section, Eligibility> refusals = student.enlistAll(List.of(sec1, sec2, sec3), SeatAllocator.IN_MEMORY);
+        // Then only the conflicting section is refused, and the student is enlisted in none of them
+        assertAll(
+                () -> assertEquals(Set.of(sec2), refusals.keySet()),
+                () -> assertEquals(Eligibility.SCHEDULE_CONFLICT, refusals.get(sec2)),
+                () -> assertTrue(student.getSections().isEmpty()),
+                () -> assertEquals(0, sec1.getNumberOfStudents())
+        );
+    }
+
+    @Test
+    void enlistAll_one_section_full() {
+        // Given a student and two sections, one of them full
+        Student student = newDefaultStudent();
+        Section sec1 = new Section("A", new Subject("C"), MTH830to10, new Room("X", 10), newFaculty());
+        Section fullSection = new Section("B", new Subject("D"), TF830to10, new Room("Y", 1), newFaculty(), 1);
+        // When the student enlists in both at once
+        Map<Section, Eligibility> refusals = student.enlistAll(List.of(sec1, fullSection), SeatAllocator.IN_MEMORY);
+        // Then the seat reserved in the other section is given back
+        assertAll(
+                () -> assertEquals(Eligibility.FULL, refusals.get(fullSection)),
+                () -> assertTrue(student.getSections().isEmpty()),
+                () -> assertEquals(0, sec1.getNumberOfStudents())
+        );
+    }
+
+    @Test
+    void checkEligibility_one_reason_per_section() {
+        // Given a student who took subject P & is enlisted in a section of subject C on MTH 8:30
+        Subject prereq = new Subject("P");
+        Subject missingPrereq = new Subject("Q");
+        Section enlisted = new Section("A", new Subject("C"), MTH830to10, new Room("X", 10), newFaculty());
+        Student student = newStudent(DEFAULT_STUDENT_NUMBER, List.of(enlisted), List.of(prereq));
+        Section conflicting = new Section("B", new Subject("D"), MTH830to10, new Room("Y", 10), newFaculty());
+        Section sameSubject = new Section("C", new Subject("C"), TF830to10, new Room("Z", 10), newFaculty());
+        Section prereqMissing = new Section("D", new Subject("E", List.of(prereq, missingPrereq)), TF10to1130, new Room("V", 10), newFaculty());
+        Section full = new Section("E", new Subject("F"), TF10to1130, new Room("W", 1), newFaculty(), 1);
+        Section enlistable = new Section("F", new Subject("G", List.of(prereq)), TF10to1130, new Room("U", 10), newFaculty());
+        List<SectionSummary> candidates = List.of(new SectionSummary(enlisted, 1), new SectionSummary(conflicting, 0),
+                new SectionSummary(sameSubject, 0), new SectionSummary(prereqMissing, 0), new SectionSummary(full, 1),
+                new SectionSummary(enlistable, 0));
 
+        // When the eligibility of all of them is checked at once
+        Map<SectionSummary, Eligibility> eligibility = student.checkEligibility(candidates);
+
+        // Then each gets the reason it can't be enlisted in, in the order given
+        assertEquals(List.of(Eligibility.ALREADY_ENLISTED, Eligibility.SCHEDULE_CONFLICT, Eligibility.SAME_SUBJECT,
+                Eligibility.PREREQ_MISSING, Eligibility.FULL, Eligibility.ENLISTABLE), List.copyOf(eligibility.values()));
+    }
 }
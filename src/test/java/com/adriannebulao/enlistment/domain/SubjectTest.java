@@ -0,0 +1,85 @@
+package com.adriannebulao.enlistment.domain;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static com.adriannebulao.enlistment.domain.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubjectTest {
+
+    @Test
+    void checkPrereqs_indirect_prereq_missing() {
+        // Given a chain of prereqs Stat1 -> Math2 -> Math1, and only Math2 taken
+        Subject math1 = new Subject("Math1");
+        Subject math2 = new Subject("Math2", List.of(math1));
+        Subject stat1 = new Subject("Stat1", List.of(math2));
+        long[] subjectsTaken = SubjectOrdinals.with(SubjectOrdinals.EMPTY, math2.ordinal());
+        // Then the indirect prereq is still required
+        assertThrows(PrereqMissingException.class, () -> stat1.checkPrereqs(subjectsTaken));
+    }
+
+    @Test
+    void checkPrereqs_all_indirect_prereqs_taken() {
+        Subject math1 = new Subject("Math1");
+        Subject math2 = new Subject("Math2", List.of(math1));
+        Subject stat1 = new Subject("Stat1", List.of(math2));
+        long[] subjectsTaken = SubjectOrdinals.with(
+                SubjectOrdinals.with(SubjectOrdinals.EMPTY, math1.ordinal()), math2.ordinal());
+        assertDoesNotThrow(() -> stat1.checkPrereqs(subjectsTaken));
+    }
+
+    @Test
+    void addPrerequisite_creating_cycle() {
+        // Given a chain of prereqs Stat1 -> Math2 -> Math1
+        Subject math1 = new Subject("Math1");
+        Subject math2 = new Subject("Math2", List.of(math1));
+        Subject stat1 = new Subject("Stat1", List.of(math2));
+        // Then Stat1 can't become a prereq of anything it requires, or of itself
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> math1.addPrerequisite(stat1)),
+                () -> assertThrows(IllegalArgumentException.class, () -> stat1.addPrerequisite(stat1))
+        );
+    }
+
+    @Test
+    void prerequisiteClosure_shared_by_loaded_instances_of_a_subject() throws Exception {
+        // Given the same subject loaded by two persistence contexts, as two instances
+        Subject math1 = loadedSubject("LoadedMath1");
+        Subject math2 = loadedSubject("LoadedMath2", math1);
+        Subject math2Elsewhere = loadedSubject("LoadedMath2", math1);
+        long[] closure = math2.prerequisiteClosure();
+
+        // Then the closure computed for one instance is the one of the other
+        assertSame(closure, math2Elsewhere.prerequisiteClosure());
+    }
+
+    @Test
+    void prerequisiteClosure_recomputed_after_graph_changed() throws Exception {
+        // Given a closure computed, then the prerequisites changed, e.g. written in another persistence context
+        Subject math1 = loadedSubject("LoadedMath1");
+        Subject math2 = loadedSubject("LoadedMath2", math1);
+        long[] closure = math2.prerequisiteClosure();
+        Subject.graphChanged();
+
+        // Then the closure is computed anew, still w/ the same prerequisites
+        long[] recomputed = math2.prerequisiteClosure();
+        assertNotSame(closure, recomputed);
+        assertArrayEquals(closure, recomputed);
+    }
+
+    @Test
+    void prerequisiteClosure_of_subject_made_in_memory_kept_to_itself() throws Exception {
+        // Given a loaded subject's closure computed
+        Subject math1 = loadedSubject("LoadedMath1");
+        Subject math2 = loadedSubject("LoadedMath2", math1);
+        math2.prerequisiteClosure();
+
+        // When a subject of the same ID is made in memory w/o prerequisites, then it doesn't use the loaded one's closure
+        Subject math2InMemory = new Subject("LoadedMath2");
+        assertFalse(math2InMemory.requires(math1));
+        // nor the loaded one, the in-memory one's
+        assertTrue(math2.requires(math1));
+    }
+}
@@ -1,24 +1,29 @@
 package com.adriannebulao.enlistment.domain;
 
+import java.lang.reflect.*;
 import java.time.*;
 import java.util.*;
 
 import static com.adriannebulao.enlistment.domain.Days.*;
 
 public class TestUtils {
-    public static final Schedule MTH830to10 = new Schedule(MTH, new Period(LocalTime.of(8, 30), LocalTime.of(10, 0)));
-    public static final Schedule TF830to10 = new Schedule(TF, new Period(LocalTime.of(8, 30), LocalTime.of(10, 0)));
-    public static final Schedule TF10to1130 = new Schedule(TF, new Period(LocalTime.of(10, 0), LocalTime.of(11, 30)));
+    public static final Schedule MTH830to10 = Schedule.of(MTH, Period.of(LocalTime.of(8, 30), LocalTime.of(10, 0)));
+    public static final Schedule TF830to10 = Schedule.of(TF, Period.of(LocalTime.of(8, 30), LocalTime.of(10, 0)));
+    public static final Schedule TF10to1130 = Schedule.of(TF, Period.of(LocalTime.of(10, 0), LocalTime.of(11, 30)));
     public static final String DEFAULT_SECTION_ID = "DefaultSection";
     public static final String DEFAULT_SUBJECT_ID = "defaultSubject";
     public static final Subject DEFAULT_SUBJECT = new Subject(DEFAULT_SUBJECT_ID);
     public static final int DEFAULT_STUDENT_NUMBER = 10;
     public static final int DEFAULT_FACULTY_NUMBER = 1000;
-//    public static final Faculty DEFAULT_FACULTY = new Faculty(DEFAULT_FACULTY_NUMBER);
 
-//    public static Faculty newFaculty(int facultyNumber) {
-//        return new Faculty(facultyNumber);
-//    }
+    public static Faculty newFaculty(int facultyNumber) {
+        return new Faculty(facultyNumber, "firstname", "lastname");
+    }
+
+    /** A new instructor w/ the default faculty number, free at every schedule **/
+    public static Faculty newFaculty() {
+        return newFaculty(DEFAULT_FACULTY_NUMBER);
+    }
 
     public static Student newStudent(int studentNumber, Collection<Section> sections, Collection<Subject> subjectsTaken) {
         return new Student(studentNumber, "firstname", "lastname", sections, subjectsTaken);
@@ -39,7 +44,35 @@ public class TestUtils {
     }
 
     public static Section newDefaultSection() {
-        return new Section(DEFAULT_SECTION_ID, DEFAULT_SUBJECT, MTH830to10, new Room("X", 10));
+        return new Section(DEFAULT_SECTION_ID, DEFAULT_SUBJECT, MTH830to10, new Room("X", 10), newFaculty());
+    }
+
+    /** A section of the default subject & schedule, in a room of its own for 10 students **/
+    public static Section newSection(String sectionId) {
+        return new Section(sectionId, DEFAULT_SUBJECT, MTH830to10, new Room("X", 10), newFaculty());
+    }
+
+    public static SectionSummary newSectionSummary(Section section, int numberOfStudents) {
+        return new SectionSummary(section, numberOfStudents);
+    }
+
+    /**
+     * A subject as Hibernate loads it, sharing its closure w/ the other loaded instances of the subject, made
+     * after the prerequisites changed, as when the reference data was just evicted, see {@link Subject#graphChanged()}.
+     */
+    @SuppressWarnings("unchecked")
+    public static Subject loadedSubject(String subjectId, Subject... prerequisites) throws ReflectiveOperationException {
+        Constructor<Subject> forJpa = Subject.class.getDeclaredConstructor();
+        forJpa.setAccessible(true);
+        Subject subject = forJpa.newInstance();
+        Field id = Subject.class.getDeclaredField("subjectId");
+        id.setAccessible(true);
+        id.set(subject, subjectId);
+        Field prereqs = Subject.class.getDeclaredField("prerequisites");
+        prereqs.setAccessible(true);
+        ((Set<Subject>) prereqs.get(subject)).addAll(List.of(prerequisites));
+        Subject.graphChanged();
+        return subject;
     }
 
 }